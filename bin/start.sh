@@ -11,7 +11,7 @@ set -e
 #==============================================================================
 # 프로세스 설정
 PROC_NAME="TX24_NAVERWORKS"
-MAIN_CLASS="kr.tx24.inet.server.INetServer"
+MAIN_CLASS="kr.tx24.naverworks.NaverWorksServer"
 
 # 디렉토리 설정 (bin 기준)
 BASE_DIR="$(cd "$(dirname "$0")/.." && pwd)"
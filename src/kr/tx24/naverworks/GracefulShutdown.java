@@ -0,0 +1,151 @@
+package kr.tx24.naverworks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.lifecycle.ShutdownManager;
+import kr.tx24.lib.lifecycle.SystemManager;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.campaign.CampaignManager;
+import kr.tx24.naverworks.bot.schedule.MessageScheduler;
+import kr.tx24.naverworks.bot.service.OrderedDispatcher;
+import kr.tx24.naverworks.bot.service.SendGate;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+import kr.tx24.naverworks.callback.CallbackServer;
+
+/**
+ * 종료 처리 (SystemManager 종료 hook, INetServer/AsyncExecutor 종료 전에 실행된다)
+ *
+"shutdown": {
+    "drainTimeoutMillis": 10000
+}
+ *
+ * 1. 대량 전송 작업 중단 (checkpoint 저장), /bot/send 수신 차단
+ * 2. 아래를 병렬로 drainTimeoutMillis 까지 수행
+ *    - 진행 중인 전송 및 lane 에 대기 중인 전송 완료 대기
+ *    - 예약 타이머 중단
+ *    - Callback 수신 중단 및 큐 처리
+ * 3. lane 을 닫고 시작하지 않은 전송(대기 중인 작업, 분할 전송의 남은 part)만 예약 journal 에 저장
+ *    (재기동 시 즉시 전송, deadline 이 있는 요청은 EXPIRED 로 버림)
+ * 4. 진행 중인 HTTP 호출은 interrupt 하지 않고, 결과를 알 수 없으므로 다시 저장하지 않는다. (abandoned 로 기록)
+ * 5. drained / abandoned / unsent / persisted 건수 기록
+ */
+public class GracefulShutdown implements ShutdownManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(GracefulShutdown.class);
+
+    private final long drainTimeoutMillis;
+
+    private GracefulShutdown(long drainTimeoutMillis) {
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    /**
+     * 종료 hook 등록 (다른 구성요소의 hook 보다 나중에 등록해야 먼저 실행된다)
+     */
+    public static void register() {
+        LinkedMap<String,Object> shutdownMap = INetConfigLoader.getMap("shutdown", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        long timeout = shutdownMap == null ? 10000 : shutdownMap.getLong("drainTimeoutMillis", 10000);
+        SystemManager.registerShutdownHook(new GracefulShutdown(timeout));
+    }
+
+    @Override
+    public void shutdown() {
+        logger.info("Graceful shutdown started, inFlight={}, timeout={}ms", SendGate.inFlightCount(), drainTimeoutMillis);
+
+        MessageScheduler scheduler = MessageScheduler.current();
+
+        // 대량 전송은 먼저 멈추고 현재 위치를 저장 (재기동 후 재개)
+        CampaignManager campaigns = CampaignManager.current();
+        if (campaigns != null) {
+            campaigns.suspendAll();
+        }
+
+        CompletableFuture<SendGate.DrainResult> drain = CompletableFuture.supplyAsync(() -> SendGate.drain(drainTimeoutMillis));
+        CompletableFuture<Void> others = CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> {
+                    if (scheduler != null) {
+                        scheduler.stop();
+                    }
+                }),
+                CompletableFuture.runAsync(() -> CallbackServer.shutdown(drainTimeoutMillis)));
+
+        SendGate.DrainResult result;
+        try {
+            result = drain.get(drainTimeoutMillis + 1000, TimeUnit.MILLISECONDS);
+            others.get(drainTimeoutMillis + 1000, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.warn("Graceful shutdown wait failed: {}", e.toString());
+            result = drain.getNow(null);
+        }
+
+        // drain 이후 시작하지 않은 part 는 실행하지 않고 journal 로 넘긴다. (진행 중인 HTTP 호출은 interrupt 하지 않음)
+        OrderedDispatcher dispatcher = OrderedDispatcher.current();
+        List<OrderedDispatcher.Unsent> unsent = dispatcher != null ? dispatcher.shutdown() : List.of();
+
+        Set<Long> unsentIds = new HashSet<>();
+        int persisted = 0;
+        for (OrderedDispatcher.Unsent remain : unsent) {
+            for (int i = 0; i < remain.parts().size(); i++) {
+                BotMessage message = remain.parts().get(i);
+                long deliveryId = remain.deliveryIds()[i];
+                unsentIds.add(deliveryId);
+                if (remain.journaled()) {
+                    // 예약 전송은 journal 에 전송되지 않은 part 부터 남아 있음
+                    persisted++;
+                } else if (message.deadline() > 0) {
+                    // deadline 이 있는 요청은 재기동 후 보내도 이미 늦었으므로 저장하지 않는다.
+                    DeliveryStore.get().complete(deliveryId, DeliveryState.EXPIRED, 0);
+                    logger.warn("Expired at shutdown: tenant={}, target={}, deliveryId={}",
+                            remain.tenant(), message.target(), deliveryId);
+                } else if (persist(scheduler, remain.tenant(), message, deliveryId)) {
+                    persisted++;
+                }
+            }
+        }
+
+        // drain 후에도 진행 중인 호출은 결과를 알 수 없으므로 다시 보내지 않고 기록만 남긴다.
+        int abandoned = 0;
+        if (result != null) {
+            for (SendGate.InFlight remain : result.abandoned()) {
+                if (!unsentIds.contains(remain.deliveryId())) {
+                    abandoned++;
+                    logger.warn("Abandoned in-flight send (result unknown): tenant={}, target={}, deliveryId={}",
+                            remain.tenant(), remain.message().target(), remain.deliveryId());
+                }
+            }
+        }
+
+        if (scheduler != null) {
+            scheduler.close();
+        }
+
+        logger.info("Graceful shutdown completed, drained={}, abandoned={}, unsent={}, persisted={}, elapsed={}ms",
+                result != null ? result.drained() : 0, abandoned, unsentIds.size(), persisted, result != null ? result.elapsed() : -1);
+    }
+
+    private boolean persist(MessageScheduler scheduler, String tenant, BotMessage message, long deliveryId) {
+        if (scheduler != null) {
+            try {
+                scheduler.persist(tenant, message, deliveryId);
+                return true;
+            } catch (Exception e) {
+                logger.warn("Failed to persist in-flight message: {}", e.getMessage());
+            }
+        }
+        // 저장할 곳이 없으면 복구할 수 있도록 내용을 남긴다.
+        logger.warn("Unsent message: tenant={}, botId={}, target={}, content={}",
+                tenant, message.botId(), message.target(), message.getContent());
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package kr.tx24.naverworks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.inet.server.INetServer;
+import kr.tx24.naverworks.bot.campaign.CampaignManager;
+import kr.tx24.naverworks.bot.schedule.MessageScheduler;
+import kr.tx24.naverworks.callback.CallbackServer;
+import kr.tx24.naverworks.conf.ConfigWatcher;
+
+/**
+ * TX24 NAVER WORKS 기동 클래스
+ * - BotService(default tenant) 초기화 및 warmup (토큰 발급, 커넥션 선연결, JIT)
+ * - 예약 전송, 대량 전송 재개, Callback 수신 서버(HTTP), 설정 감시 기동 후 INetServer 기동
+ * - 종료 시 진행 중인 전송을 drain (GracefulShutdown)
+ */
+public class NaverWorksServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NaverWorksServer.class);
+
+    public static void main(String[] args) {
+        INetConfigLoader.start();
+
+        // default tenant 초기화 실패는 첫 요청이 아니라 기동 시점에 드러나도록 한다.
+        // 이어서 커넥션 선연결, JIT warmup 후 포트를 연다.
+        try {
+            Warmup.run();
+        } catch (Exception e) {
+            logger.error("Failed to initialize BotService", e);
+            System.exit(1);
+        }
+
+        try {
+            MessageScheduler.start();
+            CampaignManager.start();
+            CallbackServer.start();
+        } catch (Exception e) {
+            logger.error("Failed to start server components", e);
+            System.exit(1);
+        }
+
+        ConfigWatcher.start();
+        GracefulShutdown.register();
+        
+        Warmup.ready();
+        new INetServer().start();
+    }
+}
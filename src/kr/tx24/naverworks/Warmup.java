@@ -0,0 +1,147 @@
+package kr.tx24.naverworks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.service.BotService;
+import kr.tx24.naverworks.bot.service.ContentSplitter;
+
+/**
+ * 기동 warmup (INetServer 가 포트를 열기 전에 실행)
+ *
+"warmup": {
+    "enabled": true,
+    "connections": 4,
+    "iterations": 2000,
+    "timeoutMillis": 10000
+}
+ *
+ * 1. default tenant BotService 생성 (JwtBuilder PEM 파싱, 토큰 발급) - 실패하면 예외 (기동 중단)
+ * 2. API / token 서버에 connections 개씩 커넥션을 미리 맺어 pool 에 둔다. (keepAliveMinutes 동안 유지)
+ * 3. 메시지 생성 -> 분할 -> 직렬화 -> 응답 처리 경로를 iterations 회 반복 (JIT 컴파일 유도, 네트워크 없음)
+ * - 2, 3 의 실패는 기록만 하고 기동은 계속한다.
+ * - 단계별 소요 시간과 JVM 시작 ~ ready 시간은 로그와 /bot/status 의 warmup 으로 확인한다.
+ */
+public class Warmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(Warmup.class);
+
+    private static final LinkedMap<String,Object> report = new LinkedMap<>();
+
+    private Warmup() {
+    }
+
+    /**
+     * warmup 실행
+     * @throws Exception default tenant 초기화 실패
+     */
+    public static void run() throws Exception {
+        LinkedMap<String,Object> warmupMap = INetConfigLoader.getMap("warmup", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        if (warmupMap == null) {
+            warmupMap = new LinkedMap<>();
+        }
+        long started = System.currentTimeMillis();
+
+        // 1. BotService 생성 + 토큰 발급
+        BotService botService = BotService.getInstance();
+        long initialized = System.currentTimeMillis();
+        put("initMillis", initialized - started);
+
+        if (!warmupMap.isTrue("enabled")) {
+            logger.info("Warmup disabled, init={}ms", initialized - started);
+            return;
+        }
+
+        // 2. 커넥션 선연결
+        try {
+            put("connections", botService.preconnect(
+                    warmupMap.getInt("connections", 4), warmupMap.getLong("timeoutMillis", 10000)));
+        } catch (Exception e) {
+            logger.warn("Warmup preconnect failed: {}", e.getMessage());
+        }
+        long connected = System.currentTimeMillis();
+        put("connectMillis", connected - initialized);
+
+        // 3. 직렬화 / 분할 / 응답 처리 반복
+        int iterations = warmupMap.getInt("iterations", 2000);
+        long bytes = 0;
+        try {
+            ContentSplitter splitter = ContentSplitter.of(INetConfigLoader.getMap("split", TypeRegistry.MAP_LINKEDMAP_OBJECT));
+            List<BotMessage> samples = samples(botService.defaultBotId());
+            for (int i = 0; i < iterations; i++) {
+                for (BotMessage sample : samples) {
+                    bytes += botService.prime(splitter.split(sample));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Warmup priming failed: {}", e.getMessage());
+        }
+        long primed = System.currentTimeMillis();
+        put("iterations", iterations);
+        put("primeMillis", primed - connected);
+        put("warmupMillis", primed - started);
+
+        logger.info("Warmup completed: elapsed={}ms, init={}ms, connect={}ms, prime={}ms ({} iterations, {} bytes), {}",
+                primed - started, initialized - started, connected - initialized, primed - connected,
+                iterations, bytes, botService.getPoolInfo());
+    }
+
+    /**
+     * 요청 수신 직전 (JVM 시작 ~ ready 시간 기록)
+     */
+    public static void ready() {
+        long readyMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        put("readyMillis", readyMillis);
+        logger.info("Ready to accept requests: {}ms since JVM start", readyMillis);
+    }
+
+    /**
+     * warmup 결과 (조회용 복사본)
+     */
+    public static LinkedMap<String,Object> report() {
+        synchronized (report) {
+            return new LinkedMap<>(report);
+        }
+    }
+
+    private static void put(String key, Object value) {
+        synchronized (report) {
+            report.put(key, value);
+        }
+    }
+
+    /**
+     * type 별 샘플 (text / list_template 은 분할되는 크기)
+     */
+    private static List<BotMessage> samples(String botId) {
+        List<Map<String, Object>> buttons = List.of(
+                Map.of("type", "uri", "label", "홈페이지", "uri", "https://example.com"),
+                Map.of("type", "message", "label", "문의하기", "text", "문의"));
+
+        List<Map<String, Object>> elements = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            elements.add(Map.of("title", "항목 " + i, "subtitle", "warmup", "imageUrl", "https://example.com/img" + i + ".jpg"));
+        }
+
+        List<BotMessage> samples = new ArrayList<>();
+        samples.add(new BotMessage().botId(botId).channelId("warmup").text("warmup 메시지 👍🏻 ".repeat(200)));
+        samples.add(new BotMessage().botId(botId).channelId("warmup").buttonTemplate("아래 버튼을 선택해주세요", buttons));
+        samples.add(new BotMessage().botId(botId).channelId("warmup").listTemplate("추천 항목 목록", elements));
+        samples.add(new BotMessage().botId(botId).userId("warmup").image("https://example.com/images/sample.jpg"));
+        samples.add(new BotMessage().botId(botId).userId("warmup").file("https://example.com/files/document.pdf", "문서.pdf"));
+        samples.add(new BotMessage().botId(botId).channelId("warmup").flex("warmup", Map.of(
+                "type", "bubble",
+                "body", Map.of("type", "box", "layout", "vertical",
+                        "contents", List.of(Map.of("type", "text", "text", "warmup", "weight", "bold"))))));
+        return samples;
+    }
+}
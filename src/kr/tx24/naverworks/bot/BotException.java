@@ -0,0 +1,20 @@
+package kr.tx24.naverworks.bot;
+
+/**
+ * 전송 전 단계에서 거절된 경우 (resultCd 를 그대로 응답에 사용)
+ */
+public class BotException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String resultCd;
+
+    public BotException(String resultCd, String message) {
+        super(message);
+        this.resultCd = resultCd;
+    }
+
+    public String resultCd() {
+        return this.resultCd;
+    }
+}
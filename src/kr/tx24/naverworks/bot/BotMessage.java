@@ -10,6 +10,8 @@ public class BotMessage {
 
     private String botId;
     private String channelId;
+    private String userId;
+    private long deadline;
     private LinkedMap<String, Object> content;
     
     public BotMessage() {
@@ -35,6 +37,37 @@ public class BotMessage {
         return this;
     }
     
+    public String userId() {
+    	return this.userId;
+    }
+    
+    /**
+     * 사용자에게 직접 전송 (channelId 대신)
+     */
+    public BotMessage userId(String userId) {
+        this.userId = userId;
+        return this;
+    }
+    
+    public long deadline() {
+    	return this.deadline;
+    }
+    
+    /**
+     * 호출자 deadline (epoch millis, 0 이면 없음) - 지나면 전송하지 않는다. (Deadline)
+     */
+    public BotMessage deadline(long deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+    
+    /**
+     * 수신 대상 (channelId, 없으면 userId) - 순서 보장 / 상태 조회 기준
+     */
+    public String target() {
+    	return this.channelId != null ? this.channelId : this.userId;
+    }
+    
     public LinkedMap<String, Object> getContent(){
     	return this.content;
     }
@@ -103,6 +136,24 @@ public class BotMessage {
         return this;
     }
     
+    /**
+     * 업로드된 이미지(fileId) 메시지 설정
+     */
+    public BotMessage imageFileId(String fileId) {
+        this.content.put("type", "image");
+        this.content.put("fileId", fileId);
+        return this;
+    }
+    
+    /**
+     * 업로드된 파일(fileId) 메시지 설정
+     */
+    public BotMessage fileId(String fileId) {
+        this.content.put("type", "file");
+        this.content.put("fileId", fileId);
+        return this;
+    }
+    
     /**
      * Flex 메시지 설정
      */
@@ -0,0 +1,48 @@
+package kr.tx24.naverworks.bot;
+
+/**
+ * 메시지 전송 결과
+ * - body 는 responseMode 가 FULL 인 경우에만 채워진다.
+ */
+public class BotResult {
+
+    private final int code;
+    private final String messageId;
+    private final String body;
+    private final boolean sampled;
+
+    public BotResult(int code, String messageId, String body) {
+        this(code, messageId, body, false);
+    }
+
+    public BotResult(int code, String messageId, String body, boolean sampled) {
+        this.code 		= code;
+        this.messageId 	= messageId;
+        this.body 		= body;
+        this.sampled 	= sampled;
+    }
+
+    public int code() {
+        return this.code;
+    }
+
+    public String messageId() {
+        return this.messageId;
+    }
+
+    public String body() {
+        return this.body;
+    }
+
+    /**
+     * 성공 로그 샘플링 결과 (BotService 가 전송 1건당 한 번 결정, 호출자도 이 값으로 기록 여부를 정한다)
+     */
+    public boolean sampled() {
+        return this.sampled;
+    }
+
+    @Override
+    public String toString() {
+        return "BotResult[code=" + code + ", messageId=" + messageId + "]";
+    }
+}
@@ -0,0 +1,55 @@
+package kr.tx24.naverworks.bot;
+
+import kr.tx24.lib.inter.INet;
+
+/**
+ * 호출자 deadline (epoch millis, 0 이면 없음)
+ * - INet head 의 deadline(epoch millis) 또는 timeoutMs(수신 시각 기준) 로 지정한다.
+ * - lane 대기 -> 토큰 조회 -> HTTP 호출(call timeout) 까지 전달되고, 지난 메시지는 전송하지 않는다.
+ */
+public final class Deadline {
+
+    public static final String EXCEEDED = "DEADLINE_EXCEEDED";
+
+    private Deadline() {
+    }
+
+    /**
+     * head 의 deadline / timeoutMs (둘 다 있으면 빠른 쪽)
+     */
+    public static long of(INet.INMap head) {
+        long deadline = 0;
+        if (!head.isEmpty("deadline")) {
+            deadline = head.getLong("deadline");
+        }
+        if (!head.isEmpty("timeoutMs")) {
+            long timeout = System.currentTimeMillis() + Math.max(0, head.getLong("timeoutMs"));
+            deadline = deadline > 0 ? Math.min(deadline, timeout) : timeout;
+        }
+        return deadline;
+    }
+
+    /**
+     * 남은 시간 (ms, 없으면 Long.MAX_VALUE)
+     */
+    public static long remaining(long deadline) {
+        return deadline > 0 ? Math.max(0, deadline - System.currentTimeMillis()) : Long.MAX_VALUE;
+    }
+
+    public static boolean isExpired(long deadline) {
+        return deadline > 0 && System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * 지났으면 BotException (DEADLINE_EXCEEDED)
+     */
+    public static void check(long deadline, String stage) throws BotException {
+        if (isExpired(deadline)) {
+            throw exceeded(stage);
+        }
+    }
+
+    public static BotException exceeded(String stage) {
+        return new BotException(EXCEEDED, "Deadline exceeded: " + stage);
+    }
+}
@@ -0,0 +1,186 @@
+package kr.tx24.naverworks.bot.campaign;
+
+import java.util.Map;
+
+/**
+ * 대량 전송 작업 정의 + 진행 상태 (checkpoint 파일과 1:1)
+ * - offset   : 처리가 끝난 행 수
+ * - position : 처리가 끝난 마지막 행 다음의 byte 위치 (재개 시 이 위치로 바로 이동, 0 이면 offset 만큼 행을 건너뛴다)
+ */
+public class CampaignJob {
+
+    public static final String RUNNING 	= "RUNNING";
+    public static final String STOPPED 	= "STOPPED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED 	= "FAILED";
+
+    private String id;
+    private String tenant;
+    private String botId;
+    private String file;
+    private String format;
+    private String channelField = "channelId";
+    private Map<String, Object> content;
+    private int concurrency;
+    private double ratePerSecond;
+
+    private long offset;
+    private long position;
+    private long sent;
+    private long failed;
+    private String status;
+    private String error;
+    private long startedAt;
+    private long updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getBotId() {
+        return botId;
+    }
+
+    public void setBotId(String botId) {
+        this.botId = botId;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * csv 또는 jsonl
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * 수신 channelId 가 들어있는 항목명
+     */
+    public String getChannelField() {
+        return channelField;
+    }
+
+    public void setChannelField(String channelField) {
+        this.channelField = channelField;
+    }
+
+    /**
+     * 메시지 content 템플릿 (문자열의 ${항목명} 을 행 값으로 치환)
+     */
+    public Map<String, Object> getContent() {
+        return content;
+    }
+
+    public void setContent(Map<String, Object> content) {
+        this.content = content;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public void setSent(long sent) {
+        this.sent = sent;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CampaignJob[id=" + id + ", file=" + file + ", status=" + status
+                + ", offset=" + offset + ", position=" + position + ", sent=" + sent + ", failed=" + failed + "]";
+    }
+}
@@ -0,0 +1,179 @@
+package kr.tx24.naverworks.bot.campaign;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.lang.CommonUtils;
+import kr.tx24.lib.lang.IDUtils;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotException;
+
+/**
+ * 대량 전송 작업 관리
+ *
+"campaign": {
+    "enabled": true,
+    "baseDir": "../data/campaign",
+    "checkpointDir": "../data/campaign/checkpoint",
+    "checkpointEvery": 100,
+    "maxConcurrency": 16,
+    "maxRatePerSecond": 50
+}
+ *
+ * - 수신자 파일은 baseDir 아래의 상대 경로만 허용한다.
+ * - 기동 시 RUNNING 상태로 남은 checkpoint 는 저장된 위치(position)부터 자동 재개한다. (비정상 종료 포함)
+ * - 종료 시(GracefulShutdown) 실행 중인 작업은 RUNNING 으로 저장되어 재기동 후 재개된다.
+ */
+public class CampaignManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignManager.class);
+
+    private static volatile CampaignManager instance;
+
+    private final Path baseDir;
+    private final CampaignStore store;
+    private final long checkpointEvery;
+    private final int maxConcurrency;
+    private final double maxRatePerSecond;
+    private final ConcurrentHashMap<String, CampaignRunner> runners = new ConcurrentHashMap<>();
+
+    private CampaignManager(LinkedMap<String,Object> campaignMap) throws Exception {
+        this.baseDir 			= Path.of(campaignMap.getString("baseDir", "../data/campaign")).toAbsolutePath().normalize();
+        this.store 				= new CampaignStore(Path.of(campaignMap.getString("checkpointDir", "../data/campaign/checkpoint")));
+        this.checkpointEvery 	= campaignMap.getLong("checkpointEvery", 100);
+        this.maxConcurrency 	= campaignMap.getInt("maxConcurrency", 16);
+        this.maxRatePerSecond 	= campaignMap.getDouble("maxRatePerSecond", 50);
+    }
+
+    /**
+     * campaign 설정이 enabled 이면 기동 (중단된 작업 재개)
+     */
+    public static void start() throws Exception {
+        LinkedMap<String,Object> campaignMap = INetConfigLoader.getMap("campaign", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        if (campaignMap == null || !campaignMap.isTrue("enabled")) {
+            logger.info("CampaignManager disabled");
+            return;
+        }
+        synchronized (CampaignManager.class) {
+            if (instance == null) {
+                instance = new CampaignManager(campaignMap);
+                instance.resume();
+            }
+        }
+    }
+
+    /**
+     * 기동된 인스턴스 (비활성이면 BotException)
+     */
+    public static CampaignManager getInstance() throws BotException {
+        CampaignManager manager = instance;
+        if (manager == null) {
+            throw new BotException("CAMPAIGN_DISABLED", "campaign is not enabled");
+        }
+        return manager;
+    }
+
+    /**
+     * 기동된 인스턴스 (비활성이면 null)
+     */
+    public static CampaignManager current() {
+        return instance;
+    }
+
+    private void resume() throws Exception {
+        for (CampaignJob job : store.loadAll()) {
+            if (!CampaignJob.RUNNING.equals(job.getStatus())) {
+                continue;
+            }
+            try {
+                run(job);
+            } catch (Exception e) {
+                logger.warn("Failed to resume campaign: {}", job, e);
+            }
+        }
+    }
+
+    /**
+     * 작업 등록 후 실행
+     * @return jobId
+     */
+    public String submit(CampaignJob job) throws Exception {
+        if (CommonUtils.isBlank(job.getFile())) {
+            throw new BotException("INVALID_PARAMETER", "Missing required field: file");
+        }
+        if (job.getContent() == null || job.getContent().isEmpty()) {
+            throw new BotException("INVALID_PARAMETER", "Missing required field: content");
+        }
+        if (CommonUtils.isBlank(job.getFormat())) {
+            job.setFormat(job.getFile().toLowerCase().endsWith(".jsonl") ? "jsonl" : "csv");
+        }
+        job.setId(IDUtils.getUUID());
+        job.setOffset(0);
+        job.setPosition(0);
+        run(job);
+        return job.getId();
+    }
+
+    private void run(CampaignJob job) throws Exception {
+        Path file = baseDir.resolve(job.getFile()).normalize();
+        if (!file.startsWith(baseDir) || !Files.isRegularFile(file)) {
+            throw new BotException("INVALID_PARAMETER", "Invalid campaign file: " + job.getFile());
+        }
+
+        // 작업별 요청값은 설정 상한 이내로 제한
+        int concurrency = job.getConcurrency() <= 0 ? maxConcurrency : Math.min(job.getConcurrency(), maxConcurrency);
+        double rate = job.getRatePerSecond() <= 0 ? maxRatePerSecond
+                : (maxRatePerSecond > 0 ? Math.min(job.getRatePerSecond(), maxRatePerSecond) : job.getRatePerSecond());
+        job.setConcurrency(concurrency);
+        job.setRatePerSecond(rate);
+
+        CampaignRunner runner = new CampaignRunner(job, file, store, checkpointEvery);
+        runners.put(job.getId(), runner);
+        runner.start();
+    }
+
+    /**
+     * 작업 조회 (실행 중이거나 이번 기동에서 실행된 작업)
+     */
+    public CampaignJob find(String jobId) {
+        CampaignRunner runner = runners.get(jobId);
+        return runner == null ? null : runner.job();
+    }
+
+    public List<CampaignJob> list() {
+        List<CampaignJob> jobs = new ArrayList<>();
+        runners.values().forEach(runner -> jobs.add(runner.job()));
+        return jobs;
+    }
+
+    /**
+     * 사용자 중단 (재기동 시 재개하지 않음)
+     */
+    public boolean stop(String jobId) {
+        CampaignRunner runner = runners.get(jobId);
+        if (runner == null || !runner.isActive()) {
+            return false;
+        }
+        runner.stop(CampaignJob.STOPPED);
+        return true;
+    }
+
+    /**
+     * 종료 : 실행 중인 작업을 멈추고 RUNNING 으로 저장 (재기동 후 재개)
+     */
+    public void suspendAll() {
+        for (CampaignRunner runner : runners.values()) {
+            if (runner.isActive()) {
+                runner.stop(CampaignJob.RUNNING);
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package kr.tx24.naverworks.bot.campaign;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.BotResult;
+import kr.tx24.naverworks.bot.service.BotService;
+import kr.tx24.naverworks.bot.service.ContentSplitter;
+import kr.tx24.naverworks.bot.service.OrderedDispatcher;
+import kr.tx24.naverworks.bot.service.TenantRegistry;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * 대량 전송 작업 실행
+ *
+ * 파일(저장된 byte 위치부터, 행 단위, demand 만큼만 읽음) -> rate 제한 -> BotMessage 변환 -> lane 전송 (동시 concurrency 건)
+ *
+ * - flatMapSequential 로 결과를 행 순서대로 받으므로 마지막으로 받은 행이 곧 "여기까지 처리됨" 이다.
+ *   checkpointEvery 행마다 행 번호(offset)와 그 행 다음의 byte 위치(position)를 저장하고,
+ *   재개 시 position 으로 바로 이동하여 읽는다. (position 이 없으면 처음부터 offset 행을 건너뜀)
+ *   (재개 직전 진행 중이던 행은 다시 전송될 수 있다)
+ * - 행 단위 실패는 failed 로 세고 계속 진행한다. 파일을 읽을 수 없으면 작업 전체가 FAILED.
+ * - channelField 값이 없는 행은 전송하지 않고 failed 로 센다.
+ * - API 제한(split 설정)을 넘는 내용은 나누어 같은 lane 에서 이어서 전송한다. (part 별 deliveryId)
+ * - lane 이 가득 차면(QUEUE_FULL) 200ms 부터 최대 5초 간격으로 30 회까지 같은 행을 다시 등록한다.
+ * - 종료 중(SHUTTING_DOWN)이면 해당 행 앞에서 멈추고 RUNNING 으로 저장한다. (offset 을 넘기지 않으므로 재개 시 그 행부터 전송)
+ */
+class CampaignRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignRunner.class);
+    private static final ContentSplitter splitter = ContentSplitter.of(INetConfigLoader.getMap("split", TypeRegistry.MAP_LINKEDMAP_OBJECT));
+
+    private static final Retry QUEUE_FULL_RETRY = Retry.backoff(30, Duration.ofMillis(200))
+            .maxBackoff(Duration.ofSeconds(5))
+            .filter(e -> e instanceof BotException be && "QUEUE_FULL".equals(be.resultCd()))
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+
+    private final CampaignJob job;
+    private final Path file;
+    private final CampaignStore store;
+    private final long checkpointEvery;
+
+    private final AtomicLong sent 	= new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long offset;
+    private volatile long position;
+    private volatile Disposable subscription;
+
+    CampaignRunner(CampaignJob job, Path file, CampaignStore store, long checkpointEvery) {
+        this.job 				= job;
+        this.file 				= file;
+        this.store 				= store;
+        this.checkpointEvery 	= Math.max(1, checkpointEvery);
+        this.offset 			= job.getOffset();
+        this.position 			= job.getPosition();
+        this.sent.set(job.getSent());
+        this.failed.set(job.getFailed());
+    }
+
+    CampaignJob job() {
+        return job;
+    }
+
+    void start() throws Exception {
+        BotService botService = TenantRegistry.get(job.getTenant());
+        String botId = job.getBotId() != null ? job.getBotId() : botService.defaultBotId();
+        RateLimiter limiter = job.getRatePerSecond() > 0 ? RateLimiter.create(job.getRatePerSecond()) : null;
+        // 이전 checkpoint 에 byte 위치가 없으면 처음부터 읽고 행 수만큼 건너뜀
+        long from = position > 0 ? position : 0;
+        long skip = position > 0 ? 0 : offset;
+        long index = position > 0 ? offset : 0;
+
+        job.setStatus(CampaignJob.RUNNING);
+        if (job.getStartedAt() == 0) {
+            job.setStartedAt(System.currentTimeMillis());
+        }
+        checkpoint();
+
+        subscription = Flux.using(
+                    () -> CampaignSource.open(file, job.getFormat(), from, index),
+                    Flux::fromIterable,
+                    CampaignSource::close)
+                .skip(skip)
+                .doOnNext(row -> {
+                    if (limiter != null) {
+                        limiter.acquire();
+                    }
+                })
+                .flatMapSequential(row -> send(botService, botId, row), job.getConcurrency(), 1)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(this::completed, this::error, this::finished);
+
+        logger.info("Campaign started: {}, resumeFrom={}, position={}", job, offset, from);
+    }
+
+    /**
+     * 한 행 전송 (실패해도 행을 돌려주어 offset 은 전진, 종료 중이면 오류로 멈춘다)
+     */
+    private Mono<CampaignSource.Row> send(BotService botService, String botId, CampaignSource.Row row) {
+        Map<String, Object> values = row.values();
+        Object channelId = values.get(job.getChannelField());
+        if (channelId == null || channelId.toString().isBlank()) {
+            failed.incrementAndGet();
+            logger.warn("Campaign row failed: job={}, row={}, missing {}", job.getId(), row.index(), job.getChannelField());
+            return Mono.just(row);
+        }
+
+        BotMessage message = new BotMessage()
+                .botId(botId)
+                .channelId(channelId.toString())
+                .content(render(job.getContent(), values));
+        List<BotMessage> parts = splitter.split(message);
+        long[] deliveryIds = new long[parts.size()];
+        for (int i = 0; i < deliveryIds.length; i++) {
+            deliveryIds[i] = DeliveryStore.get().enqueue(message.target(), DeliveryState.QUEUED);
+        }
+
+        // lane 에 등록되었으면 part 별 상태는 BotService / OrderedDispatcher 가 기록
+        AtomicBoolean submitted = new AtomicBoolean();
+        return Mono.defer(() -> {
+                    try {
+                        Mono<List<BotResult>> results = Mono.fromFuture(OrderedDispatcher.get().submitAll(botService, parts, deliveryIds), true);
+                        submitted.set(true);
+                        return results;
+                    } catch (Exception e) {
+                        return Mono.<List<BotResult>>error(e);
+                    }
+                })
+                .retryWhen(QUEUE_FULL_RETRY)
+                .doOnError(e -> {
+                    if (!submitted.get()) {
+                        for (long deliveryId : deliveryIds) {
+                            DeliveryStore.get().complete(deliveryId, DeliveryState.CANCELLED, 0);
+                        }
+                    }
+                })
+                .map(results -> {
+                    sent.incrementAndGet();
+                    return row;
+                })
+                .onErrorResume(e -> !isShuttingDown(e), e -> {
+                    failed.incrementAndGet();
+                    logger.warn("Campaign row failed: job={}, row={}, {}", job.getId(), row.index(), e.getMessage());
+                    return Mono.just(row);
+                });
+    }
+
+    private static boolean isShuttingDown(Throwable e) {
+        return e instanceof BotException be && "SHUTTING_DOWN".equals(be.resultCd());
+    }
+
+    private synchronized void completed(CampaignSource.Row row) {
+        offset 		= row.index() + 1;
+        position 	= row.position();
+        if (offset % checkpointEvery == 0) {
+            checkpoint();
+        }
+    }
+
+    private void error(Throwable e) {
+        if (isShuttingDown(e)) {
+            // 전송하지 못한 행부터 재개
+            job.setStatus(CampaignJob.RUNNING);
+            checkpoint();
+            logger.info("Campaign suspended at shutdown: {}", job);
+            return;
+        }
+        logger.warn("Campaign failed: {}", job, e);
+        job.setError(e.getMessage());
+        job.setStatus(CampaignJob.FAILED);
+        checkpoint();
+    }
+
+    private void finished() {
+        job.setStatus(CampaignJob.COMPLETED);
+        checkpoint();
+        logger.info("Campaign completed: {}", job);
+    }
+
+    /**
+     * 중단
+     * @param status STOPPED (사용자 중단) 또는 RUNNING (종료 시, 재기동 후 재개)
+     */
+    void stop(String status) {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        job.setStatus(status);
+        checkpoint();
+        logger.info("Campaign stopped: {}", job);
+    }
+
+    boolean isActive() {
+        Disposable current = subscription;
+        return current != null && !current.isDisposed() && CampaignJob.RUNNING.equals(job.getStatus());
+    }
+
+    private synchronized void checkpoint() {
+        job.setOffset(offset);
+        job.setPosition(position);
+        job.setSent(sent.get());
+        job.setFailed(failed.get());
+        job.setUpdatedAt(System.currentTimeMillis());
+        store.save(job);
+    }
+
+    /**
+     * 템플릿의 문자열 값에서 ${항목명} 치환 (Map / List 는 재귀)
+     */
+    static LinkedMap<String, Object> render(Map<String, Object> template, Map<String, Object> values) {
+        LinkedMap<String, Object> rendered = new LinkedMap<>();
+        for (Map.Entry<String, Object> entry : template.entrySet()) {
+            rendered.put(entry.getKey(), renderValue(entry.getValue(), values));
+        }
+        return rendered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object renderValue(Object value, Map<String, Object> values) {
+        if (value instanceof String text) {
+            return renderText(text, values);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return render((Map<String, Object>) map, values);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> rendered = new ArrayList<>(list.size());
+            for (Object item : list) {
+                rendered.add(renderValue(item, values));
+            }
+            return rendered;
+        }
+        return value;
+    }
+
+    private static String renderText(String text, Map<String, Object> values) {
+        int start = text.indexOf("${");
+        if (start < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 32);
+        int pos = 0;
+        while (start >= 0) {
+            int end = text.indexOf('}', start + 2);
+            if (end < 0) {
+                break;
+            }
+            Object v = values.get(text.substring(start + 2, end));
+            sb.append(text, pos, start).append(v == null ? "" : v);
+            pos = end + 1;
+            start = text.indexOf("${", pos);
+        }
+        return sb.append(text, pos, text.length()).toString();
+    }
+}
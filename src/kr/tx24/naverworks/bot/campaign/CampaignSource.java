@@ -0,0 +1,252 @@
+package kr.tx24.naverworks.bot.campaign;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import kr.tx24.lib.mapper.JacksonCsvUtils;
+import kr.tx24.lib.mapper.JacksonUtils;
+
+/**
+ * 수신자 파일을 한 행씩 읽는 Iterable (파일 전체를 heap 에 올리지 않는다)
+ * - csv   : 첫 행이 header
+ * - jsonl : 한 줄에 JSON object 하나
+ *
+ * 행마다 그 행 다음의 byte 위치(position)를 함께 돌려주고, open 시 position 으로 바로 이동하여 읽는다.
+ * - jsonl : byte 입력 parser 의 currentLocation().getByteOffset()
+ * - csv   : csv parser 는 char 위치만 주므로 한 줄씩 넘겨주는 LineReader 가 char 위치를 byte 위치로 바꾼다.
+ *           (header 는 항상 파일 처음에서 읽는다)
+ */
+class CampaignSource implements Iterable<CampaignSource.Row>, Closeable {
+
+    /**
+     * 읽은 행
+     * @param index    파일 처음부터의 행 번호 (header 제외, 0 부터)
+     * @param position 이 행 다음의 byte 위치 (알 수 없으면 0)
+     */
+    record Row(long index, long position, Map<String, Object> values) {
+    }
+
+    private final Closeable input;
+    private final MappingIterator<Map<String, Object>> rows;
+    private final long start;
+    private final LineReader lines;
+    private long index;
+
+    private CampaignSource(Closeable input, MappingIterator<Map<String, Object>> rows, long start, LineReader lines, long index) {
+        this.input 	= input;
+        this.rows 	= rows;
+        this.start 	= start;
+        this.lines 	= lines;
+        this.index 	= index;
+    }
+
+    /**
+     * @param position 읽기 시작할 byte 위치 (0 이면 처음부터)
+     * @param index    position 위치의 행 번호
+     */
+    static CampaignSource open(Path file, String format, long position, long index) throws IOException {
+        if ("jsonl".equalsIgnoreCase(format)) {
+            FileChannel channel = FileChannel.open(file);
+            try {
+                channel.position(position);
+                MappingIterator<Map<String, Object>> rows = new JacksonUtils().getMapper()
+                        .readerFor(Map.class).readValues(Channels.newInputStream(channel));
+                return new CampaignSource(channel, rows, position, null, index);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        LineReader reader = new LineReader(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            CsvMapper mapper = (CsvMapper) new JacksonCsvUtils().getMapper();
+            String header = reader.readHeader();
+            CsvSchema.Builder schema = CsvSchema.builder();
+            if (header != null) {
+                try (MappingIterator<String[]> it = mapper.readerFor(String[].class).with(CsvParser.Feature.WRAP_AS_ARRAY).readValues(header)) {
+                    for (String column : it.next()) {
+                        schema.addColumn(column);
+                    }
+                }
+            }
+            reader.seek(position);
+            MappingIterator<Map<String, Object>> rows = mapper.readerFor(Map.class).with(schema.build()).readValues(reader);
+            return new CampaignSource(reader, rows, 0, reader, index);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Row next() {
+                Map<String, Object> values = rows.next();
+                return new Row(index++, position(), values);
+            }
+        };
+    }
+
+    private long position() {
+        if (lines != null) {
+            return lines.position(rows.getParser().currentLocation().getCharOffset());
+        }
+        long offset = rows.getParser().currentLocation().getByteOffset();
+        return offset < 0 ? 0 : start + offset;
+    }
+
+    @Override
+    public void close() {
+        try {
+            rows.close();
+            input.close();
+        } catch (IOException e) {
+            // 읽기 전용
+        }
+    }
+
+    /**
+     * UTF-8 파일을 한 번에 한 줄씩만 parser 에 넘겨주는 Reader
+     * parser 가 읽고 있는 줄(과 직전 줄)의 시작 위치를 기억하여 char 위치를 byte 위치로 바꾼다.
+     */
+    private static final class LineReader extends Reader {
+
+        private final InputStream in;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        // 다음 줄의 byte 위치
+        private long bytes;
+        // parser 에 넘긴 char 수
+        private long chars;
+        private boolean eof;
+
+        private String current = "";
+        private long currentChar;
+        private long currentByte;
+        private int pos;
+
+        private String previous = "";
+        private long previousChar;
+        private long previousByte;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * 첫 줄 (parser 에 넘기지 않음)
+         */
+        String readHeader() throws IOException {
+            String line = readLine();
+            return line == null ? null : line.stripTrailing();
+        }
+
+        /**
+         * header 다음 위치보다 뒤이면 그 위치로 이동
+         */
+        void seek(long position) throws IOException {
+            if (position > bytes) {
+                in.skipNBytes(position - bytes);
+                bytes = position;
+            }
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (pos == current.length()) {
+                long startByte = bytes;
+                String line = readLine();
+                if (line == null) {
+                    eof = true;
+                    return -1;
+                }
+                previous 		= current;
+                previousChar 	= currentChar;
+                previousByte 	= currentByte;
+                current 		= line;
+                currentChar 	= chars;
+                currentByte 	= startByte;
+                pos 			= 0;
+            }
+            int n = Math.min(len, current.length() - pos);
+            current.getChars(pos, pos + n, cbuf, off);
+            pos 	+= n;
+            chars 	+= n;
+            return n;
+        }
+
+        /**
+         * parser 의 char 위치 -> 그 위치 뒤의 줄바꿈까지 건너뛴 byte 위치 (기억하는 줄 밖이면 0)
+         */
+        long position(long charOffset) {
+            if (eof && charOffset >= chars) {
+                // 줄바꿈 없이 끝난 마지막 행은 parser 가 넘겨준 것보다 큰 위치를 주므로 파일 끝으로 본다.
+                return bytes;
+            }
+            if (charOffset >= currentChar) {
+                return position(current, currentByte, (int) (charOffset - currentChar));
+            }
+            if (charOffset >= previousChar) {
+                return position(previous, previousByte, (int) (charOffset - previousChar));
+            }
+            return 0;
+        }
+
+        private static long position(String line, long lineByte, int at) {
+            if (at > line.length()) {
+                return 0;
+            }
+            while (at < line.length() && (line.charAt(at) == '\r' || line.charAt(at) == '\n')) {
+                at++;
+            }
+            return lineByte + line.substring(0, at).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        /**
+         * '\n' 까지 (포함) 한 줄, 파일 끝이면 null
+         */
+        private String readLine() throws IOException {
+            buffer.reset();
+            int b;
+            while ((b = in.read()) >= 0) {
+                buffer.write(b);
+                if (b == '\n') {
+                    break;
+                }
+            }
+            if (buffer.size() == 0) {
+                return null;
+            }
+            bytes += buffer.size();
+            return buffer.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package kr.tx24.naverworks.bot.campaign;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.lib.mapper.JacksonUtils;
+
+/**
+ * 작업 checkpoint 저장소 (작업당 파일 하나, 임시 파일에 쓴 뒤 교체)
+ */
+class CampaignStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignStore.class);
+
+    private final Path dir;
+    private final JacksonUtils json = new JacksonUtils().compact();
+
+    CampaignStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    void save(CampaignJob job) {
+        Path path = dir.resolve(job.getId() + ".json");
+        Path tmp  = dir.resolve(job.getId() + ".json.tmp");
+        try {
+            Files.write(tmp, json.toJsonBytes(job));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to save campaign checkpoint: {}, {}", job, e.getMessage());
+        }
+    }
+
+    List<CampaignJob> loadAll() throws IOException {
+        List<CampaignJob> jobs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                try {
+                    jobs.add(json.fromJson(file, CampaignJob.class));
+                } catch (Exception e) {
+                    logger.warn("Skip broken campaign checkpoint: {}, {}", file, e.getMessage());
+                }
+            }
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,327 @@
+package kr.tx24.naverworks.bot.schedule;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.executor.AsyncExecutor;
+import kr.tx24.lib.lang.IDUtils;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.BotResult;
+import kr.tx24.naverworks.bot.service.BotService;
+import kr.tx24.naverworks.bot.service.ContentSplitter;
+import kr.tx24.naverworks.bot.service.OrderedDispatcher;
+import kr.tx24.naverworks.bot.service.TenantRegistry;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+
+/**
+ * 예약/지연 메시지 전송
+ *
+"schedule": {
+    "enabled": true,
+    "journal": "../data/schedule.jsonl",
+    "tickMillis": 100,
+    "ticksPerWheel": 4096,
+    "maxPending": 1000000,
+    "retryMillis": 1000,
+    "maxRetries": 5,
+    "compactThreshold": 10000
+}
+ *
+ * - Hashed wheel timer (삽입/취소 O(1), 타이머별 스레드 없음)
+ * - 만료된 메시지는 즉시 전송과 같은 경로(분할 -> part 별 deliveryId -> OrderedDispatcher lane)로 전송한다.
+ * - lane 이 가득 차면(QUEUE_FULL) retryMillis 부터 2 배씩 늘려 maxRetries 회까지 다시 예약하고, 넘으면 FAILED 로 기록한다.
+ * - 전송 실패는 BotService 가 part 별로 FAILED 로 기록한다. (일부 part 가 전송된 뒤이므로 다시 보내지 않는다)
+ * - 예약/취소/완료는 journal 에 기록되어 재기동 후 복원된다. (이미 지난 예약은 기동 즉시 전송)
+ * - 분할 전송은 part 마다 진행을 journal 에 기록하여, 중단 후 재기동 시 전송되지 않은 part 만 전송한다.
+ * - 예약 메시지는 journal 에만 보관하고 pending / 타이머 작업은 id 만 가진다.
+ * - 완료/취소된 줄이 compactThreshold 를 넘으면 journal 을 남은 예약만으로 다시 쓴다.
+ */
+public class MessageScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageScheduler.class);
+
+    private static volatile MessageScheduler instance;
+
+    private final HashedWheelTimer timer;
+    private final ScheduleJournal journal;
+    // scheduleId -> timer (메시지 본문은 journal 에만 보관)
+    private final ConcurrentHashMap<String, Timeout> pending = new ConcurrentHashMap<>();
+    private final long maxPending;
+    private final long retryMillis;
+    private final int maxRetries;
+    private final ContentSplitter splitter = ContentSplitter.of(INetConfigLoader.getMap("split", TypeRegistry.MAP_LINKEDMAP_OBJECT));
+
+    private MessageScheduler(LinkedMap<String,Object> scheduleMap) throws Exception {
+        this.maxPending 	= scheduleMap.getLong("maxPending", 1000000);
+        this.retryMillis 	= scheduleMap.getLong("retryMillis", 1000);
+        this.maxRetries 	= scheduleMap.getInt("maxRetries", 5);
+
+        AtomicInteger seq = new AtomicInteger();
+        this.timer = new HashedWheelTimer(
+                r -> {
+                    Thread t = new Thread(r, "schedule-timer-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                scheduleMap.getLong("tickMillis", 100), TimeUnit.MILLISECONDS,
+                scheduleMap.getInt("ticksPerWheel", 4096),
+                false,
+                maxPending,
+                AsyncExecutor.getExecutor());
+
+        this.journal = new ScheduleJournal(Path.of(scheduleMap.getString("journal", "../data/schedule.jsonl")),
+                scheduleMap.getInt("compactThreshold", 10000));
+        for (ScheduledMessage message : journal.open()) {
+            arm(message);
+        }
+        logger.info("MessageScheduler started, restored={}", pending.size());
+    }
+
+    /**
+     * schedule 설정이 enabled 이면 기동 (저장된 예약 복원)
+     */
+    public static void start() throws Exception {
+        LinkedMap<String,Object> scheduleMap = INetConfigLoader.getMap("schedule", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        if (scheduleMap == null || !scheduleMap.isTrue("enabled")) {
+            logger.info("MessageScheduler disabled");
+            return;
+        }
+        synchronized (MessageScheduler.class) {
+            if (instance == null) {
+                instance = new MessageScheduler(scheduleMap);
+            }
+        }
+    }
+
+    /**
+     * 기동된 인스턴스 (비활성이면 null)
+     */
+    public static MessageScheduler current() {
+        return instance;
+    }
+
+    /**
+     * 기동된 인스턴스 (비활성이면 BotException)
+     */
+    public static MessageScheduler getInstance() throws BotException {
+        MessageScheduler scheduler = instance;
+        if (scheduler == null) {
+            throw new BotException("SCHEDULE_DISABLED", "schedule is not enabled");
+        }
+        return scheduler;
+    }
+
+    /**
+     * 예약 등록
+     * @return 등록된 예약 (scheduleId, deliveryId)
+     */
+    public ScheduledMessage schedule(String tenant, BotMessage message, long sendAt) throws Exception {
+        if (pending.size() >= maxPending) {
+            throw new BotException("SCHEDULE_FULL", "too many pending schedules: " + maxPending);
+        }
+
+        long deliveryId = DeliveryStore.get().enqueue(message.target(), DeliveryState.SCHEDULED);
+        ScheduledMessage scheduled = new ScheduledMessage(IDUtils.getUUID(), tenant, message, sendAt, deliveryId);
+        journal.add(scheduled);
+        arm(scheduled);
+
+        logger.debug("Scheduled: {}", scheduled);
+        return scheduled;
+    }
+
+    /**
+     * 예약 취소
+     * @return 취소되었으면 true (이미 전송되었거나 없는 id 이면 false)
+     */
+    public boolean cancel(String id) {
+        Timeout timeout = pending.get(id);
+        if (timeout == null || !timeout.cancel()) {
+            return false;
+        }
+        pending.remove(id, timeout);
+        ScheduledMessage scheduled = journal.get(id);
+        journal.remove(id);
+        if (scheduled != null) {
+            DeliveryStore.get().complete(scheduled.getDeliveryId(), DeliveryState.CANCELLED, 0);
+        }
+        logger.info("Schedule cancelled: {}", id);
+        return true;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 타이머 등록 (작업은 id 만 가지고, 실행 시 journal 에서 메시지를 찾는다)
+     */
+    private void arm(ScheduledMessage scheduled) {
+        String id = scheduled.getId();
+        long delay = Math.max(0, scheduled.getSendAt() - System.currentTimeMillis());
+        Timeout timeout = timer.newTimeout(t -> fire(id), delay, TimeUnit.MILLISECONDS);
+        pending.put(id, timeout);
+        
+        // put 이전에 이미 만료/실행된 경우 정리
+        if (timeout.isExpired()) {
+            pending.remove(id, timeout);
+        }
+    }
+
+    /**
+     * 만료 -> 즉시 전송과 같은 경로 (분할된 part 를 하나의 lane 작업으로)
+     * part 가 전송될 때마다 진행(PART)을, 마지막 part 가 전송되면 DEL 을 기록한다.
+     * 종료로 중단되면 재기동 시 전송되지 않은 part 부터 다시 전송한다. (종료 시 진행 중이던 part 는 다시 보내지 않음)
+     */
+    private void fire(String id) {
+        pending.remove(id);
+        ScheduledMessage scheduled = journal.get(id);
+        if (scheduled == null) {
+            return;
+        }
+
+        DeliveryStore store = DeliveryStore.get();
+        BotMessage message = scheduled.toMessage();
+        long[] deliveryIds = null;
+        CompletableFuture<List<BotResult>> future;
+        try {
+            BotService botService = TenantRegistry.get(scheduled.getTenant());
+
+            // API 제한을 넘으면 나누어 순서대로 전송 (이미 전송된 part 는 건너뜀, 첫 part 는 예약 시 받은 deliveryId)
+            List<BotMessage> parts = splitter.split(message);
+            int sentParts = Math.min(scheduled.getSentParts(), parts.size());
+            parts = parts.subList(sentParts, parts.size());
+            if (parts.isEmpty()) {
+                journal.remove(id);
+                store.complete(scheduled.getDeliveryId(), DeliveryState.SENT, 0);
+                return;
+            }
+            deliveryIds = new long[parts.size()];
+            deliveryIds[0] = scheduled.getDeliveryId();
+            for (int i = 1; i < deliveryIds.length; i++) {
+                deliveryIds[i] = store.enqueue(message.target(), DeliveryState.QUEUED);
+            }
+            int total = sentParts + parts.size();
+            future = OrderedDispatcher.get().submitAll(botService, parts, deliveryIds, true, i -> {
+                if (sentParts + i + 1 < total) {
+                    journal.progress(id, sentParts + i + 1);
+                } else {
+                    journal.remove(id);
+                }
+            });
+        } catch (BotException e) {
+            cancelParts(deliveryIds);
+            if ("SHUTTING_DOWN".equals(e.resultCd())) {
+                // 종료 중이면 전송하지 않고 journal 에 남겨 재기동 시 전송
+                return;
+            }
+            if ("QUEUE_FULL".equals(e.resultCd())) {
+                retry(scheduled);
+                return;
+            }
+            fail(scheduled, e);
+            return;
+        } catch (Exception e) {
+            cancelParts(deliveryIds);
+            fail(scheduled, e);
+            return;
+        }
+
+        future.whenComplete((results, e) -> {
+            if (e instanceof BotException be && "SHUTTING_DOWN".equals(be.resultCd())) {
+                // 종료로 남은 part 는 journal 에 남겨 재기동 시 전송
+                logger.info("Scheduled message suspended: {}", scheduled);
+                return;
+            }
+            journal.remove(id);
+            if (e == null) {
+                logger.info("Scheduled message sent: {}, parts={}, late={}ms", scheduled, results.size(),
+                        System.currentTimeMillis() - scheduled.getSendAt());
+            } else {
+                logger.warn("Scheduled message failed: {}, {}", scheduled, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * lane 이 가득 찬 경우 backoff 후 다시 예약
+     */
+    private void retry(ScheduledMessage scheduled) {
+        int attempts = scheduled.getAttempts() + 1;
+        if (attempts > maxRetries) {
+            fail(scheduled, new BotException("QUEUE_FULL", "send queue is full after " + maxRetries + " retries"));
+            return;
+        }
+        long backoff = retryMillis << Math.min(attempts - 1, 16);
+        scheduled.setAttempts(attempts);
+        scheduled.setSendAt(System.currentTimeMillis() + backoff);
+        try {
+            journal.add(scheduled);
+            arm(scheduled);
+            logger.info("Scheduled message re-armed: {}, backoff={}ms", scheduled, backoff);
+        } catch (Exception e) {
+            // 타이머가 중단된 경우 : journal 의 이전 ADD 로 재기동 시 전송
+            logger.warn("Failed to re-arm scheduled message: {}, {}", scheduled, e.getMessage());
+        }
+    }
+
+    private void fail(ScheduledMessage scheduled, Exception e) {
+        journal.remove(scheduled.getId());
+        DeliveryStore.get().complete(scheduled.getDeliveryId(), DeliveryState.FAILED, 0);
+        logger.warn("Scheduled message failed: {}", scheduled, e);
+    }
+
+    /**
+     * lane 에 등록되지 않은 추가 part 정리 (첫 part 는 예약 상태 유지)
+     */
+    private static void cancelParts(long[] deliveryIds) {
+        if (deliveryIds == null) {
+            return;
+        }
+        for (int i = 1; i < deliveryIds.length; i++) {
+            if (deliveryIds[i] != 0) {
+                DeliveryStore.get().complete(deliveryIds[i], DeliveryState.CANCELLED, 0);
+            }
+        }
+    }
+
+    /**
+     * 타이머 중단 (더 이상 실행하지 않음, 남은 예약은 journal 에 그대로 유지)
+     */
+    public void stop() {
+        try {
+            timer.stop();
+        } catch (RejectedExecutionException e) {
+            logger.debug("Schedule timer already stopped");
+        }
+    }
+
+    /**
+     * 종료 시 끝나지 않은 즉시 전송을 journal 에 저장 (재기동 시 바로 전송)
+     */
+    public void persist(String tenant, BotMessage message, long deliveryId) throws Exception {
+        journal.add(new ScheduledMessage(IDUtils.getUUID(), tenant, message, System.currentTimeMillis(), deliveryId));
+    }
+
+    /**
+     * journal 닫기
+     */
+    public void close() {
+        journal.close();
+        logger.info("MessageScheduler stopped, pending={}", pending.size());
+    }
+}
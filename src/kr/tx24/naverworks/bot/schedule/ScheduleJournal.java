@@ -0,0 +1,195 @@
+package kr.tx24.naverworks.bot.schedule;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.lib.map.SharedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.lib.mapper.JacksonUtils;
+
+/**
+ * 예약 메시지 저장소 (append-only JSON Lines)
+ * {"op":"ADD","message":{...}}
+ * {"op":"PART","id":"...","sent":2}	: 분할 전송 중 전송이 끝난 part 수
+ * {"op":"DEL","id":"..."}
+ * 
+ * 남은 예약은 이 클래스의 live map 하나에만 보관한다. (scheduler 의 pending / 타이머 작업은 id 만 가진다)
+ * 기동 시 전체를 읽어 남은(ADD 후 DEL 되지 않은) 항목만 다시 써서 압축한다.
+ * 실행 중에도 DEL(또는 같은 id 의 ADD / PART 로 대체된 줄)이 compactThreshold 를 넘고 남은 항목 수 이상이면
+ * 남은 항목만 임시 파일에 쓰고 atomic move 로 교체한다.
+ */
+public class ScheduleJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleJournal.class);
+
+    private final Path path;
+    private final int compactThreshold;
+    private final JacksonUtils json = new JacksonUtils().compact();
+    // 남은 항목 (압축 시 다시 쓴다, 변경은 lock 안에서만 / 조회는 lock 없이)
+    private final Map<String, ScheduledMessage> live = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+    // 마지막 압축 이후 불필요해진 줄 수
+    private int garbage;
+
+    public ScheduleJournal(Path path, int compactThreshold) {
+        this.path 				= path;
+        this.compactThreshold 	= Math.max(1, compactThreshold);
+    }
+
+    /**
+     * 저장된 예약 목록 복원 + 압축 후 기록 시작
+     */
+    public synchronized Collection<ScheduledMessage> open() throws IOException {
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        SharedMap<String,Object> entry = json.fromJson(line, TypeRegistry.MAP_SHAREDMAP_OBJECT);
+                        if ("ADD".equals(entry.getString("op"))) {
+                            ScheduledMessage message = json.mapToObject((Map<?, ?>) entry.get("message"), ScheduledMessage.class);
+                            live.put(message.getId(), message);
+                        } else if ("PART".equals(entry.getString("op"))) {
+                            ScheduledMessage message = live.get(entry.getString("id"));
+                            if (message != null) {
+                                message.setSentParts(entry.getInt("sent"));
+                            }
+                        } else {
+                            live.remove(entry.getString("id"));
+                        }
+                    } catch (Exception e) {
+                        // 비정상 종료로 마지막 줄이 잘린 경우
+                        logger.warn("Skip broken schedule journal line: {}", e.getMessage());
+                    }
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        rewrite();
+        logger.info("Schedule journal opened: {}, pending={}", path, live.size());
+        return new ArrayList<>(live.values());
+    }
+
+    /**
+     * 압축 : 남은 항목만 임시 파일에 쓰고 교체 후 이어서 기록
+     */
+    private void rewrite() throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (ScheduledMessage message : live.values()) {
+                out.write(json.toJson(Map.of("op", "ADD", "message", message)));
+                out.newLine();
+            }
+        }
+
+        if (writer != null) {
+            writer.close();
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.garbage = 0;
+        } finally {
+            // 교체에 실패해도 기존 파일에 이어서 기록
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    public void add(ScheduledMessage message) throws IOException {
+        String line = json.toJson(Map.of("op", "ADD", "message", message));
+        synchronized (this) {
+            write(line);
+            if (live.put(message.getId(), message) != null) {
+                garbage++;
+            }
+        }
+    }
+
+    /**
+     * 남은 예약 조회 (없으면 null)
+     */
+    public ScheduledMessage get(String id) {
+        return live.get(id);
+    }
+
+    /**
+     * 분할 전송 진행 기록 (재기동 시 sent 이후 part 만 전송)
+     */
+    public void progress(String id, int sent) {
+        String line = json.toJson(Map.of("op", "PART", "id", id, "sent", sent));
+        synchronized (this) {
+            ScheduledMessage message = live.get(id);
+            if (message == null) {
+                return;
+            }
+            try {
+                write(line);
+                message.setSentParts(sent);
+                garbage++;
+            } catch (IOException e) {
+                logger.warn("Failed to write schedule journal: PART {} {}, {}", id, sent, e.getMessage());
+            }
+        }
+    }
+
+    public void remove(String id) {
+        String line = json.toJson(Map.of("op", "DEL", "id", id));
+        synchronized (this) {
+            if (!live.containsKey(id)) {
+                return;
+            }
+            try {
+                write(line);
+                live.remove(id);
+                garbage += 2;
+                compactIfNeeded();
+            } catch (IOException e) {
+                logger.warn("Failed to write schedule journal: DEL {}, {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void write(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (garbage < compactThreshold || garbage < live.size()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int removed = garbage;
+        rewrite();
+        logger.info("Schedule journal compacted: removed={}, pending={}, elapsed={}ms",
+                removed, live.size(), System.currentTimeMillis() - started);
+    }
+
+    public synchronized void close() {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to close schedule journal: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package kr.tx24.naverworks.bot.schedule;
+
+import java.util.Map;
+
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.naverworks.bot.BotMessage;
+
+/**
+ * 예약 메시지 (journal 한 줄과 1:1)
+ */
+public class ScheduledMessage {
+
+    private String id;
+    private String tenant;
+    private String botId;
+    private String channelId;
+    private String userId;
+    private long sendAt;
+    private long deliveryId;
+    private int attempts;
+    private int sentParts;
+    private Map<String, Object> content;
+
+    public ScheduledMessage() {
+    }
+
+    public ScheduledMessage(String id, String tenant, BotMessage message, long sendAt, long deliveryId) {
+        this.id 		= id;
+        this.tenant 	= tenant;
+        this.botId 		= message.botId();
+        this.channelId 	= message.channelId();
+        this.userId 	= message.userId();
+        this.sendAt 	= sendAt;
+        this.deliveryId = deliveryId;
+        this.content 	= message.getContent();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getBotId() {
+        return botId;
+    }
+
+    public void setBotId(String botId) {
+        this.botId = botId;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    public void setChannelId(String channelId) {
+        this.channelId = channelId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getSendAt() {
+        return sendAt;
+    }
+
+    public void setSendAt(long sendAt) {
+        this.sendAt = sendAt;
+    }
+
+    /**
+     * DeliveryStore id (재기동 전에 등록된 id 는 조회되지 않는다)
+     */
+    public long getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(long deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    /**
+     * lane 등록 실패(QUEUE_FULL)로 다시 예약된 횟수
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * 분할 전송 중 전송이 끝난 part 수 (재기동 시 이후 part 만 전송)
+     */
+    public int getSentParts() {
+        return sentParts;
+    }
+
+    public void setSentParts(int sentParts) {
+        this.sentParts = sentParts;
+    }
+
+    public Map<String, Object> getContent() {
+        return content;
+    }
+
+    public void setContent(Map<String, Object> content) {
+        this.content = content;
+    }
+
+    /**
+     * 전송용 BotMessage 로 변환
+     */
+    public BotMessage toMessage() {
+        return new BotMessage()
+                .botId(botId)
+                .channelId(channelId)
+                .userId(userId)
+                .content(new LinkedMap<>(content));
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledMessage[id=" + id + ", tenant=" + tenant + ", botId=" + botId
+                + ", channelId=" + channelId + ", sendAt=" + sendAt + ", deliveryId=" + deliveryId + ", attempts=" + attempts + ", sentParts=" + sentParts + "]";
+    }
+}
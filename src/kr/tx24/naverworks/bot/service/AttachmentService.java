@@ -0,0 +1,289 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import kr.tx24.lib.executor.AsyncExecutor;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.SharedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.Deadline;
+import kr.tx24.naverworks.oauth.TokenManager;
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+/**
+ * 첨부파일 업로드
+ * 1. POST /bots/{botId}/attachments  -> fileId, uploadUrl 발급
+ * 2. uploadUrl 로 multipart(Filedata) 업로드
+ *
+ *
+"attachment": {
+    "baseDir": "../data/attachment",
+    "uploadTimeout": 120000,
+    "cacheSize": 1000,
+    "cacheTtlMinutes": 60
+}
+ *
+ * - 업로드할 수 있는 파일은 baseDir 아래로 제한한다. (상대 경로는 baseDir 기준, 벗어나면 INVALID_PARAMETER)
+ * - 파일은 FileChannel 에서 요청 sink 로 바로 전송되며 heap 에 전체를 올리지 않는다.
+ * - fileId 는 botId + 내용 해시(SHA-256) 기준으로 캐시되어 동일 파일은 한 번만 업로드된다.
+ * - 해시 / 업로드는 AsyncExecutor 에서 실행하고(요청 스레드는 대기만), deadline 이 있으면 대기와 HTTP call timeout 을 남은 시간으로 제한한다.
+ */
+public class AttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+    private static final MediaType JSON 		= MediaType.get("application/json; charset=utf-8");
+    private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+    private static final int HASH_BUFFER_SIZE 	= 64 * 1024;
+
+    private final String baseUrl;
+    private final Path baseDir;
+    private final TokenManager tokenManager;
+    private final OkHttpClient httpClient;
+    private final JacksonUtils json;
+
+    // botId:sha256 -> fileId
+    private final SingleFlightCache<String> fileIdCache;
+    // path:size:mtime -> sha256 (같은 파일을 채널마다 다시 해시하지 않도록)
+    private final Cache<String, String> hashCache;
+
+    public AttachmentService(String baseUrl, TokenManager tokenManager, OkHttpClient httpClient, JacksonUtils json, LinkedMap<String,Object> attachMap) {
+        this(baseUrl, tokenManager, httpClient, json, attachMap, null);
+    }
+
+    /**
+     * @param previous 설정 reload 전 인스턴스 : fileId / 해시 캐시를 그대로 이어받는다. (캐시 크기 / TTL 변경은 재기동 후 반영)
+     */
+    public AttachmentService(String baseUrl, TokenManager tokenManager, OkHttpClient httpClient, JacksonUtils json,
+            LinkedMap<String,Object> attachMap, AttachmentService previous) {
+        this.baseUrl 		= baseUrl;
+        this.baseDir 		= Path.of(attachMap.getString("baseDir", "../data/attachment")).toAbsolutePath().normalize();
+        this.tokenManager 	= tokenManager;
+        this.json 			= json;
+
+        // 업로드는 일반 메시지보다 오래 걸리므로 write/read timeout 만 분리 (커넥션 풀은 공유)
+        this.httpClient = httpClient.newBuilder()
+                .writeTimeout(attachMap.getLong("uploadTimeout", 120*1000), TimeUnit.MILLISECONDS)
+                .readTimeout(attachMap.getLong("uploadTimeout", 120*1000), TimeUnit.MILLISECONDS)
+                .build();
+
+        if (previous != null) {
+            this.fileIdCache = previous.fileIdCache;
+            this.hashCache 	 = previous.hashCache;
+            return;
+        }
+        this.fileIdCache = new SingleFlightCache<>(CacheBuilder.newBuilder()
+                .maximumSize(attachMap.getLong("cacheSize", 1000))
+                .expireAfterWrite(attachMap.getLong("cacheTtlMinutes", 60), TimeUnit.MINUTES)
+                .recordStats()
+                .<String, String>build());
+        this.hashCache = CacheBuilder.newBuilder()
+                .maximumSize(attachMap.getLong("cacheSize", 1000))
+                .build();
+    }
+
+    /**
+     * 로컬 파일 업로드 후 fileId 반환 (캐시 적중 시 업로드 생략)
+     * 동일 키에 대한 동시 요청은 하나의 업로드로 합쳐진다.
+     * @param deadline epoch millis (0 이면 uploadTimeout 만 적용)
+     * @throws BotException DEADLINE_EXCEEDED (진행 중인 해시 / 업로드는 중단)
+     */
+    public String upload(String botId, Path path, long deadline) throws Exception {
+        Path file = resolve(path);
+
+        Future<String> future = AsyncExecutor.submit(() -> {
+            String key = botId + ":" + contentHash(file);
+            return fileIdCache.get(key, () -> doUpload(botId, file, deadline));
+        });
+        try {
+            return deadline > 0 ? future.get(Deadline.remaining(deadline), TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw Deadline.exceeded("attachment upload");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * baseDir 기준으로 해석하고 baseDir 밖(../, 절대 경로, symlink)이면 거절
+     */
+    private Path resolve(Path path) throws Exception {
+        Path file = baseDir.resolve(path).normalize();
+        if (!file.startsWith(baseDir)) {
+            throw new BotException("INVALID_PARAMETER", "Invalid attachment path: " + path);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("첨부파일이 존재하지 않습니다: " + path);
+        }
+        if (!file.toRealPath().startsWith(baseDir.toRealPath())) {
+            throw new BotException("INVALID_PARAMETER", "Invalid attachment path: " + path);
+        }
+        return file;
+    }
+
+    /**
+     * 업로드 실제 수행
+     */
+    private String doUpload(String botId, Path file, long deadline) throws Exception {
+        long started = System.currentTimeMillis();
+        String fileName = file.getFileName().toString();
+
+        // 1. 업로드 URL 발급
+        Request request = new Request.Builder()
+                .url(baseUrl + "/bots/" + botId + "/attachments")
+                .post(RequestBody.create(json.toJsonBytes(Map.of("fileName", fileName)), JSON))
+                .addHeader("Authorization", "Bearer " + tokenManager.getAccessToken())
+                .build();
+
+        SharedMap<String,Object> issued;
+        try (Response response = newCall(request, deadline).execute()) {
+            String responseBody = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                logger.warn("Attachment issue failed: code={}, body={}", response.code(), responseBody);
+                throw new Exception("첨부파일 업로드 URL 발급 실패: " + response.code() + ", " + responseBody);
+            }
+            issued = json.fromJson(responseBody, TypeRegistry.MAP_SHAREDMAP_OBJECT);
+        }
+
+        // 2. 파일 업로드 (FileChannel -> sink)
+        RequestBody multipart = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("Filedata", fileName, new FileChannelBody(file))
+                .build();
+
+        Request upload = new Request.Builder()
+                .url(issued.getString("uploadUrl"))
+                .post(multipart)
+                .addHeader("Authorization", "Bearer " + tokenManager.getAccessToken())
+                .build();
+
+        try (Response response = newCall(upload, deadline).execute()) {
+            if (!response.isSuccessful()) {
+                String responseBody = response.body() != null ? response.body().string() : "";
+                logger.warn("Attachment upload failed: code={}, body={}", response.code(), responseBody);
+                throw new Exception("첨부파일 업로드 실패: " + response.code() + ", " + responseBody);
+            }
+        }
+
+        String fileId = issued.getString("fileId");
+        logger.info("Attachment uploaded: file={}, size={}, fileId={}, elapsed={}ms",
+                fileName, Files.size(file), fileId, System.currentTimeMillis() - started);
+        return fileId;
+    }
+
+    /**
+     * deadline 이 있으면 남은 시간을 call 전체 timeout 으로 건다.
+     */
+    private Call newCall(Request request, long deadline) throws BotException {
+        Call call = httpClient.newCall(request);
+        if (deadline > 0) {
+            long remaining = Deadline.remaining(deadline);
+            if (remaining <= 0) {
+                throw Deadline.exceeded("attachment upload");
+            }
+            call.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+
+    /**
+     * 파일 내용 해시 (SHA-256)
+     * 크기/수정시각이 같으면 이전 결과를 재사용한다.
+     */
+    private String contentHash(Path file) throws Exception {
+        String stamp = file.toAbsolutePath() + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+        String hash = hashCache.getIfPresent(stamp);
+        if (hash == null) {
+            hash = sha256(file);
+            hashCache.put(stamp, hash);
+        }
+        return hash;
+    }
+
+    private static String sha256(Path file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 캐시 정보 (디버깅용)
+     */
+    public String getCacheInfo() {
+        return String.format("Attachment Cache - fileIds: %d, hashes: %d, stats: %s",
+                fileIdCache.cache().size(), hashCache.size(), fileIdCache.cache().stats());
+    }
+
+    /**
+     * FileChannel 을 요청 sink 로 직접 전송하는 RequestBody
+     * (BufferedSink 는 WritableByteChannel 이므로 transferTo 로 전달)
+     */
+    private static class FileChannelBody extends RequestBody {
+
+        private final Path file;
+
+        FileChannelBody(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return OCTET_STREAM;
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return Files.size(file);
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    long transferred = channel.transferTo(position, size - position, sink);
+                    if (transferred <= 0) {
+                        // contentLength() 이후 파일이 줄어든 경우
+                        throw new IOException("첨부파일이 전송 중 변경되었습니다: " + file + ", " + position + "/" + size);
+                    }
+                    position += transferred;
+                }
+            }
+        }
+    }
+}
@@ -1,114 +1,459 @@
 package kr.tx24.naverworks.bot.service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import kr.tx24.inet.conf.INetConfigLoader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 import kr.tx24.lib.map.LinkedMap;
-import kr.tx24.lib.map.TypeRegistry;
 import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.BotException;
 import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.BotResult;
+import kr.tx24.naverworks.bot.Deadline;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+import kr.tx24.naverworks.bot.trace.SendTrace;
+import kr.tx24.naverworks.bot.trace.TraceEventListener;
 import kr.tx24.naverworks.oauth.TokenManager;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class BotService {
 
     private static final Logger logger = LoggerFactory.getLogger(BotService.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final byte[] WARMUP_RESPONSE = "{\"messageId\":\"warmup\",\"result\":{\"code\":\"OK\"}}".getBytes(StandardCharsets.UTF_8);
     
-    // 싱글톤 인스턴스
-    private static volatile BotService instance;
-    private static final Object lock = new Object();
-    
+    private final String tenant;
+    private final TenantRegistry.TenantConfig config;
+    private final String defaultBotId;
     private final LinkedMap<String,Object> apiMap;
     private final TokenManager tokenManager;
     private final OkHttpClient httpClient;
     private final JacksonUtils json;
     
+    // 성공 경로 처리
+    private final String baseUrl;
+    private final ResponseMode responseMode;
+    private final String responseIdField;
+    private final LogSampler sampler;
+    
+    // 첨부파일 업로드
+    private final AttachmentService attachmentService;
+    
+    // 전송 제한 (rate / quota)
+    private final SendLimiter limiter;
+    
+    // 이메일 / 사번 -> userId
+    private final UserDirectory directory;
+    
+    /**
+     * 2xx 응답 body 처리 방식
+     */
+    public enum ResponseMode {
+        DISCARD, EXTRACT, FULL
+    }
+    
     /**
-     * Private 생성자 (싱글톤 패턴)
+     * TenantRegistry 에서만 생성
+     * @param previous reload 로 교체되는 인스턴스 (전송 제한 사용량, 첨부파일 / 사용자 조회 캐시를 이어받음)
      */
-    private BotService() throws Exception {
-        this.apiMap = INetConfigLoader.getMap("api", TypeRegistry.MAP_LINKEDMAP_OBJECT);
-        this.tokenManager = new TokenManager(INetConfigLoader.getMap("oauth", TypeRegistry.MAP_LINKEDMAP_OBJECT));
+    BotService(String tenant, TenantRegistry.TenantConfig config, OkHttpClient sharedClient, BotService previous) throws Exception {
+        LinkedMap<String,Object> apiMap = config.api();
+        this.tenant 		= tenant;
+        this.config 		= config;
+        this.defaultBotId 	= config.bot().getString("botId");
+        this.apiMap 		= apiMap;
+        this.tokenManager 	= new TokenManager(config.oauth(), sharedClient);
 
-        this.httpClient = new OkHttpClient.Builder()
+        // 공유 클라이언트에서 파생 (커넥션 풀/Dispatcher 공유, timeout 만 tenant 별)
+        // SendTrace tag 가 있는 메시지 전송 call 만 단계별 시간을 기록한다.
+        this.httpClient = sharedClient.newBuilder()
                 .connectTimeout(apiMap.getLong("connectTimeout", 5*1000), TimeUnit.MILLISECONDS)
                 .readTimeout(apiMap.getLong("readTimeout", 30*1000), TimeUnit.MILLISECONDS)
+                .eventListenerFactory(TraceEventListener.FACTORY)
                 .build();
         this.json = new JacksonUtils();
         
+        this.baseUrl 		= apiMap.getString("baseUrl");
+        this.responseMode 	= ResponseMode.valueOf(apiMap.getString("responseMode", "DISCARD").toUpperCase());
+        this.responseIdField= apiMap.getString("responseIdField", "messageId");
+        this.sampler 		= LogSampler.of(apiMap);
+        this.limiter 		= new SendLimiter(config.limit(), previous != null ? previous.limiter : null);
+        
+        this.attachmentService = new AttachmentService(baseUrl, tokenManager, httpClient, json, config.attachment(),
+                previous != null ? previous.attachmentService : null);
+        this.directory 		= new UserDirectory(baseUrl, tokenManager, httpClient, json, config.directory(),
+                previous != null ? previous.directory : null);
+        
         // TokenManager 초기화 (한 번만 실행됨)
         this.tokenManager.initialize();
-        logger.info("BotService initialized (singleton)");
+        logger.info("BotService initialized: tenant={}", tenant);
     }
     
     /**
-     * 싱글톤 인스턴스 반환 (Double-Checked Locking)
+     * default tenant 인스턴스 반환
      */
     public static BotService getInstance() throws Exception {
-        if (instance == null) {
-            synchronized (lock) {
-                if (instance == null) {
-                    instance = new BotService();
-                }
-            }
-        }
-        return instance;
+        return TenantRegistry.get(TenantRegistry.DEFAULT);
+    }
+    
+    public String tenant() {
+        return this.tenant;
+    }
+    
+    /**
+     * 생성에 사용한 설정 (reload 시 변경 비교)
+     */
+    TenantRegistry.TenantConfig config() {
+        return this.config;
+    }
+    
+    /**
+     * tenant 설정(bot.botId)의 기본 botId
+     */
+    public String defaultBotId() {
+        return this.defaultBotId;
     }
     
     /**
      * 메시지 전송
      */
-    public String sendMessage(BotMessage message) throws Exception {
+    public BotResult sendMessage(BotMessage message) throws Exception {
+        return sendMessage(message, DeliveryStore.get().enqueue(message.target(), DeliveryState.QUEUED));
+    }
+    
+    /**
+     * 메시지 전송 (DeliveryStore 에 등록된 deliveryId 의 상태를 갱신)
+     * deadline 이 지난 메시지는 전송하지 않고 EXPIRED 로 기록한다. (BotException DEADLINE_EXCEEDED)
+     */
+    public BotResult sendMessage(BotMessage message, long deliveryId) throws Exception {
+        DeliveryStore store = DeliveryStore.get();
+        if (Deadline.isExpired(message.deadline())) {
+            store.complete(deliveryId, DeliveryState.EXPIRED, 0);
+            throw Deadline.exceeded("queued " + deliveryId);
+        }
+        SendTrace trace = new SendTrace(deliveryId, tenant, message.target(), store.sending(deliveryId));
+        
+        int httpCode = 0;
+        boolean expired = false;
+        try {
+            BotResult result = send(message, trace);
+            httpCode = result.code();
+            return result;
+        } catch (HttpStatusException e) {
+            httpCode = e.code();
+            throw e;
+        } catch (BotException e) {
+            expired = Deadline.EXCEEDED.equals(e.resultCd());
+            throw e;
+        } finally {
+            trace.finish(httpCode);
+            store.complete(deliveryId, expired ? DeliveryState.EXPIRED
+                    : httpCode >= 200 && httpCode < 300 ? DeliveryState.SENT : DeliveryState.FAILED, httpCode);
+        }
+    }
+    
+    private BotResult send(BotMessage message, SendTrace trace) throws Exception {
         
-        // API URL 생성
-        String url = String.format("%s/bots/%s/channels/%s/messages",
-                apiMap.getString("baseUrl"),
-                message.botId(),
-                message.channelId());
+        // tenant 별 rate / quota (전송되지 않으면 quota 반환)
+        trace.begin(SendTrace.Stage.LIMIT);
+        LocalDate quotaDay = limiter.acquire(message.deadline());
+        boolean sent = false;
+        try {
+            BotResult result = call(message, trace);
+            sent = true;
+            return result;
+        } finally {
+            if (!sent) {
+                limiter.release(quotaDay);
+            }
+        }
+    }
+    
+    private BotResult call(BotMessage message, SendTrace trace) throws Exception {
         
-        // Request Body 생성
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("content", message.getContent());
-        String payload = json.toJson(requestBody);
+        // getAccessToken()은 캐시된 토큰을 반환하거나 필요시에만 갱신 (갱신 대기는 deadline 까지만)
+        trace.begin(SendTrace.Stage.TOKEN);
+        String accessToken = tokenManager.getAccessToken(message.deadline());
+        
+        // API URL 생성 (channel 또는 user)
+        trace.begin(SendTrace.Stage.ENCODE);
+        String url = message.channelId() != null
+                ? baseUrl + "/bots/" + message.botId() + "/channels/" + message.channelId() + "/messages"
+                : baseUrl + "/bots/" + message.botId() + "/users/" + message.userId() + "/messages";
+        byte[] payload = encode(message);
         
-        logger.debug("message to: {}", url);
-        logger.debug("request   : {}", payload);
+        // 전송 1건당 한 번만 샘플링 (debug / info 로그가 같은 결과를 사용)
+        boolean sampled = logger.isInfoEnabled() && sampler.sample();
+        if (sampled && logger.isDebugEnabled()) {
+            logger.debug("message to: {}", url);
+            logger.debug("request   : {}", new String(payload, StandardCharsets.UTF_8));
+        }
         
-        // HTTP 요청 (getAccessToken()은 캐시된 토큰을 반환하거나 필요시에만 갱신)
         Request request = new Request.Builder()
                 .url(url)
                 .post(RequestBody.create(payload, JSON))
-                .addHeader("Authorization", "Bearer " + tokenManager.getAccessToken())
-                .addHeader("Content-Type", "application/json")
+                .addHeader("Authorization", "Bearer " + accessToken)
+                .tag(SendTrace.class, trace)
                 .build();
+        trace.end(SendTrace.Stage.ENCODE);
+        
+        // HTTP 요청 (ACQUIRE / SERVER 는 TraceEventListener 가 기록)
+        // deadline 이 있으면 남은 시간을 call 전체 timeout 으로 건다. (connect ~ body 읽기까지)
+        Call call = httpClient.newCall(request);
+        if (message.deadline() > 0) {
+            long remaining = Deadline.remaining(message.deadline());
+            if (remaining <= 0) {
+                throw Deadline.exceeded("before call");
+            }
+            call.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+        }
         
-        try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body() != null ? response.body().string() : "";
+        try (Response response = call.execute()) {
+            trace.begin(SendTrace.Stage.READ);
             
             if (!response.isSuccessful()) {
-                logger.warn("Message send failed: code={}, body={}", response.code(), responseBody);
-                throw new Exception("메시지 전송 실패: " + response.code() + ", " + responseBody);
+                String responseBody = response.body() != null ? response.body().string() : "";
+                logger.warn("Message send failed: code={}, url={}, body={}", response.code(), url, responseBody);
+                throw new HttpStatusException(response.code(), "메시지 전송 실패: " + response.code() + ", " + responseBody);
             }
             
-            logger.info("response : {}", responseBody);
-            return responseBody;
+            BotResult result = readSuccess(response);
+            trace.end(SendTrace.Stage.READ);
+            if (sampled) {
+                logger.info("response : {}", result.body() != null ? result.body() : result);
+                return new BotResult(result.code(), result.messageId(), result.body(), true);
+            }
+            return result;
+        } catch (InterruptedIOException e) {
+            // call timeout (남은 시간) 으로 끊긴 경우
+            if (message.deadline() > 0 && (call.isCanceled() || Deadline.isExpired(message.deadline()))) {
+                throw Deadline.exceeded("http call");
+            }
+            throw e;
         }
     }
     
+    /**
+     * Request Body 생성 (String 을 거치지 않고 byte[] 로 직렬화)
+     */
+    private byte[] encode(BotMessage message) throws Exception {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("content", message.getContent());
+        return json.toJsonBytes(requestBody);
+    }
+    
+    /**
+     * warmup : 전송과 같은 직렬화 / 응답 처리 경로를 네트워크 없이 실행 (JIT 유도)
+     * @return 직렬화한 byte 수
+     */
+    public long prime(List<BotMessage> messages) throws Exception {
+        long bytes = 0;
+        for (BotMessage message : messages) {
+            bytes += encode(message).length;
+            
+            Response response = new Response.Builder()
+                    .request(new Request.Builder().url(baseUrl).build())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(201)
+                    .message("Created")
+                    .body(ResponseBody.create(WARMUP_RESPONSE, JSON))
+                    .build();
+            try (response) {
+                readSuccess(response);
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * warmup : API / token 서버에 커넥션을 미리 맺어 pool 에 둔다.
+     * 응답 코드와 무관하게 응답을 받으면 커넥션은 pool 로 반환된다. (호스트당 최대 Dispatcher maxRequestsPerHost 개)
+     * @return host 별 연결 성공 수
+     */
+    public LinkedMap<String,Object> preconnect(int connections, long timeoutMillis) throws InterruptedException {
+        int perHost = Math.max(1, Math.min(connections, httpClient.dispatcher().getMaxRequestsPerHost()));
+        LinkedMap<String,Object> opened = new LinkedMap<>();
+        
+        for (String url : List.of(baseUrl, tokenManager.tokenServer())) {
+            HttpUrl root = HttpUrl.get(url).resolve("/");
+            if (opened.containsKey(root.host())) {
+                continue;
+            }
+            
+            AtomicInteger connected = new AtomicInteger();
+            CountDownLatch latch = new CountDownLatch(perHost);
+            for (int i = 0; i < perHost; i++) {
+                httpClient.newCall(new Request.Builder().url(root).head().build()).enqueue(new Callback() {
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        response.close();
+                        connected.incrementAndGet();
+                        latch.countDown();
+                    }
+                    
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        logger.warn("Preconnect failed: {}, {}", root.host(), e.getMessage());
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            opened.put(root.host(), connected.get());
+        }
+        return opened;
+    }
+    
+    /**
+     * 공유 커넥션 풀 (전체 / idle)
+     */
+    public String getPoolInfo() {
+        return String.format("Connection Pool - total: %d, idle: %d",
+                httpClient.connectionPool().connectionCount(), httpClient.connectionPool().idleConnectionCount());
+    }
+    
+    /**
+     * 비 2xx 응답 (상태 코드를 DeliveryStore 에 남기기 위해 구분)
+     */
+    static class HttpStatusException extends Exception {
+        
+        private static final long serialVersionUID = 1L;
+        private final int code;
+        
+        HttpStatusException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+        
+        int code() {
+            return code;
+        }
+    }
+    
+    /**
+     * 2xx 응답 처리
+     * - DISCARD : body 를 읽지 않는다. (close 시 OkHttp 가 남은 바이트를 버리고 커넥션을 재사용)
+     * - EXTRACT : body 를 스트리밍 파싱하여 responseIdField 값만 추출
+     * - FULL    : body 전체를 String 으로 읽는다. (기존 동작)
+     */
+    private BotResult readSuccess(Response response) throws Exception {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return new BotResult(response.code(), null, null);
+        }
+        
+        switch (responseMode) {
+            case FULL:
+                String responseBody = body.string();
+                return new BotResult(response.code(), null, responseBody);
+                
+            case EXTRACT:
+                return new BotResult(response.code(), extractField(body, responseIdField), null);
+                
+            case DISCARD:
+            default:
+                return new BotResult(response.code(), null, null);
+        }
+    }
+    
+    /**
+     * 최상위 필드 하나만 스트리밍으로 추출 (전체 body 를 메모리에 올리지 않음)
+     */
+    private String extractField(ResponseBody body, String fieldName) throws Exception {
+        if (body.contentLength() == 0) {
+            return null;
+        }
+        
+        try (JsonParser parser = json.getMapper().getFactory().createParser(body.byteStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (fieldName.equals(name) && token.isScalarValue()) {
+                    return parser.getValueAsString();
+                }
+                parser.skipChildren();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 로컬 파일 업로드 후 fileId 반환
+     * 동일한 내용의 파일은 캐시된 fileId 를 재사용한다.
+     * @param deadline epoch millis (0 이면 없음)
+     */
+    public String uploadAttachment(String botId, Path file, long deadline) throws Exception {
+        return attachmentService.upload(botId, file, deadline);
+    }
+    
+    /**
+     * 이메일(email) 또는 사번(employeeNo)으로 userId 조회 (캐시)
+     */
+    public String resolveUserId(String type, String value) throws Exception {
+        return directory.resolve(type, value);
+    }
+    
+    /**
+     * 사용자 조회 캐시 정보 (디버깅용)
+     */
+    public String getDirectoryInfo() {
+        return directory.getCacheInfo();
+    }
+    
+    /**
+     * 첨부파일 캐시 정보 조회 (디버깅용)
+     */
+    public String getAttachmentInfo() {
+        return attachmentService.getCacheInfo();
+    }
+    
     /**
      * TokenManager 정보 조회 (디버깅용)
      */
     public String getTokenInfo() {
         return tokenManager.getTokenInfo();
     }
+    
+    /**
+     * 종료 (reload 로 교체된 인스턴스) - 토큰 자동 갱신 중단
+     * 공유 커넥션 풀은 닫지 않으므로 진행 중인 요청은 그대로 완료된다.
+     */
+    void close() {
+        tokenManager.close();
+        logger.info("BotService closed: tenant={}", tenant);
+    }
+    
+    /**
+     * 전송 제한 정보 조회 (디버깅용)
+     */
+    public String getLimitInfo() {
+        return limiter.getStatus();
+    }
 }
\ No newline at end of file
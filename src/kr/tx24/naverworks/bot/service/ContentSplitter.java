@@ -0,0 +1,141 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.naverworks.bot.BotMessage;
+
+/**
+ * API 제한을 넘는 메시지 분할
+ *
+"split": {
+    "textMaxLength": 2000,
+    "listMaxElements": 4
+}
+ *
+ * - text          : 줄바꿈 기준으로 나누고, 한 줄이 제한을 넘으면 grapheme 경계에서 나눈다.
+ *                   (surrogate pair, ZWJ, variation selector(⚠️), skin tone 은 자르지 않는다)
+ * - list_template : elements 를 listMaxElements 개씩 나눈다. (coverData 등 나머지 항목은 각 메시지에 유지)
+ * - 그 외 type 은 그대로 둔다.
+ */
+public class ContentSplitter {
+
+    private final int textMaxLength;
+    private final int listMaxElements;
+
+    public ContentSplitter(int textMaxLength, int listMaxElements) {
+        this.textMaxLength 		= Math.max(16, textMaxLength);
+        this.listMaxElements 	= Math.max(1, listMaxElements);
+    }
+
+    /**
+     * split 설정으로 생성 (없으면 기본값)
+     */
+    public static ContentSplitter of(LinkedMap<String,Object> splitMap) {
+        if (splitMap == null) {
+            splitMap = new LinkedMap<>();
+        }
+        return new ContentSplitter(
+                splitMap.getInt("textMaxLength", 2000),
+                splitMap.getInt("listMaxElements", 4));
+    }
+
+    /**
+     * 전송 순서대로 나눈 메시지 (나눌 필요가 없으면 원본 하나)
+     */
+    public List<BotMessage> split(BotMessage message) {
+        LinkedMap<String,Object> content = message.getContent();
+        Object type = content.get("type");
+
+        if ("text".equals(type)) {
+            String text = content.getString("text");
+            if (text != null && text.length() > textMaxLength) {
+                List<BotMessage> parts = new ArrayList<>();
+                for (String part : splitText(text, textMaxLength)) {
+                    parts.add(copy(message).text(part));
+                }
+                return parts;
+            }
+        } else if ("list_template".equals(type) && content.get("elements") instanceof List<?> elements
+                && elements.size() > listMaxElements) {
+            List<BotMessage> parts = new ArrayList<>();
+            for (int from = 0; from < elements.size(); from += listMaxElements) {
+                BotMessage part = copy(message);
+                part.getContent().put("elements", new ArrayList<>(elements.subList(from, Math.min(elements.size(), from + listMaxElements))));
+                parts.add(part);
+            }
+            return parts;
+        }
+        return List.of(message);
+    }
+
+    private static BotMessage copy(BotMessage message) {
+        LinkedMap<String,Object> content = new LinkedMap<>();
+        content.putAll(message.getContent());
+        return new BotMessage()
+                .botId(message.botId())
+                .channelId(message.channelId())
+                .userId(message.userId())
+                .deadline(message.deadline())
+                .content(content);
+    }
+
+    /**
+     * 줄 -> grapheme 경계 순으로 분할
+     */
+    static List<String> splitText(String text, int max) {
+        List<String> parts = new ArrayList<>();
+        BreakIterator graphemes = null;
+
+        int pos = 0;
+        while (text.length() - pos > max) {
+            int limit = pos + max;
+
+            // 1. 마지막 줄바꿈 (줄바꿈 문자는 버린다)
+            int newline = text.lastIndexOf('\n', limit);
+            if (newline > pos) {
+                parts.add(text.substring(pos, newline));
+                pos = newline + 1;
+                continue;
+            }
+
+            // 2. grapheme 경계
+            if (graphemes == null) {
+                graphemes = BreakIterator.getCharacterInstance();
+                graphemes.setText(text);
+            }
+            int cut = graphemes.preceding(limit + 1);
+            if (cut <= pos) {
+                cut = limit;
+            }
+            while (cut > pos + 1 && !isSafeCut(text, cut)) {
+                cut--;
+            }
+            parts.add(text.substring(pos, cut));
+            pos = cut;
+        }
+        if (pos < text.length()) {
+            parts.add(text.substring(pos));
+        }
+        return parts;
+    }
+
+    /**
+     * cut 위치에서 잘라도 emoji/문자가 깨지지 않는지
+     */
+    private static boolean isSafeCut(String text, int cut) {
+        char next = text.charAt(cut);
+        char prev = text.charAt(cut - 1);
+        if (Character.isLowSurrogate(next) || prev == '\u200D' || next == '\u200D') {
+            return false;
+        }
+        int cp = text.codePointAt(cut);
+        // variation selector, combining mark, emoji skin tone modifier
+        return !(cp == 0xFE0F || cp == 0xFE0E
+                || Character.getType(cp) == Character.NON_SPACING_MARK
+                || Character.getType(cp) == Character.ENCLOSING_MARK
+                || (cp >= 0x1F3FB && cp <= 0x1F3FF));
+    }
+}
@@ -0,0 +1,57 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.tx24.lib.map.LinkedMap;
+
+/**
+ * 성공 경로(hot path) 로그 샘플링
+ * - sampleRate    : N건 중 1건만 기록 (1 이하이면 전부 기록, 0 이면 기록 안함)
+ * - maxPerSecond  : 초당 최대 기록 건수 (0 이하이면 제한 없음)
+ * 오류 경로는 샘플링 대상이 아니며 항상 기록한다.
+ */
+public class LogSampler {
+
+    private final long sampleRate;
+    private final long maxPerSecond;
+
+    private final AtomicLong counter 		= new AtomicLong();
+    private final AtomicLong windowSecond 	= new AtomicLong();
+    private final AtomicLong windowCount 	= new AtomicLong();
+
+    public LogSampler(long sampleRate, long maxPerSecond) {
+        this.sampleRate 	= sampleRate;
+        this.maxPerSecond 	= maxPerSecond;
+    }
+
+    /**
+     * api 설정(logSampleRate, logMaxPerSecond)으로 생성
+     */
+    public static LogSampler of(LinkedMap<String,Object> apiMap) {
+        return new LogSampler(
+                apiMap.getLong("logSampleRate", 1),
+                apiMap.getLong("logMaxPerSecond", 0));
+    }
+
+    /**
+     * 이번 건을 기록할지 여부
+     */
+    public boolean sample() {
+        if (sampleRate == 0) {
+            return false;
+        }
+        if (sampleRate > 1 && counter.getAndIncrement() % sampleRate != 0) {
+            return false;
+        }
+        if (maxPerSecond <= 0) {
+            return true;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (current != second && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+}
@@ -0,0 +1,282 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.BotResult;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+
+/**
+ * channel 순서 보장 전송
+ *
+"dispatch": {
+    "lanes": 0,
+    "queueSize": 10000
+}
+ *
+ * - botId + channelId(또는 userId) 해시로 N 개의 lane(단일 스레드 executor) 중 하나에 배정한다.
+ * - 같은 channel 은 항상 같은 lane 에서 순서대로(FIFO) 전송되고, 다른 channel 은 lane 수만큼 병렬로 전송된다.
+ * - lanes 가 0 이면 core 수 x 2, queueSize 는 lane 별 대기 건수 (가득 차면 QUEUE_FULL)
+ * - 모든 전송은 SendGate 로 추적되므로 종료 시 대기 중인 건도 drain 대상이다.
+ * - 종료 시 진행 중인 HTTP 호출은 끝까지 두고, 시작하지 않은 part 만 회수한다. (shutdown)
+ */
+public class OrderedDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderedDispatcher.class);
+
+    private static volatile OrderedDispatcher instance;
+
+    private final ThreadPoolExecutor[] lanes;
+    // lane 별 실행 중인 작업 (종료 시 남은 part 를 회수)
+    private final AtomicReferenceArray<LaneTask> running;
+
+    /**
+     * 종료로 전송되지 않은 part (journaled 이면 예약 journal 에 남아 있음)
+     */
+    public record Unsent(String tenant, List<BotMessage> parts, long[] deliveryIds, boolean journaled) {
+    }
+
+    private OrderedDispatcher(int laneCount, int queueSize) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        this.running = new AtomicReferenceArray<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            String name = "send-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(
+                    1, 1,
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        logger.info("OrderedDispatcher created: lanes={}, queueSize={}", laneCount, queueSize);
+    }
+
+    /**
+     * 인스턴스 (처음 사용될 때 dispatch 설정으로 생성)
+     */
+    public static OrderedDispatcher get() {
+        if (instance == null) {
+            synchronized (OrderedDispatcher.class) {
+                if (instance == null) {
+                    LinkedMap<String,Object> dispatchMap = INetConfigLoader.getMap("dispatch", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+                    if (dispatchMap == null) {
+                        dispatchMap = new LinkedMap<>();
+                    }
+                    int laneCount = dispatchMap.getInt("lanes", 0);
+                    if (laneCount <= 0) {
+                        laneCount = Runtime.getRuntime().availableProcessors() * 2;
+                    }
+                    instance = new OrderedDispatcher(laneCount, dispatchMap.getInt("queueSize", 10000));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 생성된 인스턴스 (사용된 적이 없으면 null)
+     */
+    public static OrderedDispatcher current() {
+        return instance;
+    }
+
+    /**
+     * lane 에 전송 등록
+     * 반환된 future 는 전송 결과로 완료된다. (예외 포함)
+     */
+    public CompletableFuture<BotResult> submit(BotService botService, BotMessage message, long deliveryId) throws BotException {
+        return submitAll(botService, List.of(message), new long[] {deliveryId}).thenApply(results -> results.get(0));
+    }
+
+    /**
+     * 분할된 메시지를 하나의 lane 작업으로 등록 (다른 메시지가 끼어들지 않고 순서대로 이어서 전송)
+     * 앞 부분이 실패하면 나머지는 전송하지 않고 CANCELLED 로 기록한다.
+     */
+    public CompletableFuture<List<BotResult>> submitAll(BotService botService, List<BotMessage> parts, long[] deliveryIds) throws BotException {
+        return submitAll(botService, parts, deliveryIds, false);
+    }
+
+    /**
+     * @param journaled 예약 journal 에 이미 남아 있는 전송 (종료 시 abandoned 되어도 다시 저장하지 않음)
+     */
+    public CompletableFuture<List<BotResult>> submitAll(BotService botService, List<BotMessage> parts, long[] deliveryIds, boolean journaled) throws BotException {
+        return submitAll(botService, parts, deliveryIds, journaled, null);
+    }
+
+    /**
+     * @param sent part 가 전송될 때마다 index 로 호출 (null 이면 없음, 예약 journal 의 진행 기록용)
+     *             journaled 이면 종료 시 진행 중이던 part 에 대해서도 호출된다. (같은 index 로 두 번 호출될 수 있음)
+     */
+    public CompletableFuture<List<BotResult>> submitAll(BotService botService, List<BotMessage> parts, long[] deliveryIds,
+            boolean journaled, IntConsumer sent) throws BotException {
+        for (int i = 0; i < parts.size(); i++) {
+            if (!SendGate.enter(deliveryIds[i], botService.tenant(), parts.get(i), journaled)) {
+                for (int j = 0; j < i; j++) {
+                    SendGate.exit(deliveryIds[j]);
+                }
+                throw new BotException("SHUTTING_DOWN", "Server is shutting down");
+            }
+        }
+
+        int index = laneIndex(parts.get(0));
+        LaneTask task = new LaneTask(index, botService, parts, deliveryIds, journaled, sent);
+        try {
+            lanes[index].execute(task);
+        } catch (RejectedExecutionException e) {
+            for (long deliveryId : deliveryIds) {
+                SendGate.exit(deliveryId);
+            }
+            throw new BotException("QUEUE_FULL", "send queue is full: " + parts.get(0).target());
+        }
+        return task.future;
+    }
+
+    private int laneIndex(BotMessage message) {
+        int h = 31 * hash(message.botId()) + hash(message.target());
+        // 하위 비트 편중 방지
+        h ^= (h >>> 16);
+        return Math.floorMod(h, lanes.length);
+    }
+
+    private static int hash(String value) {
+        return value == null ? 0 : value.hashCode();
+    }
+
+    /**
+     * 종료 : 대기 중인 작업과 실행 중인 작업의 아직 시작하지 않은 part 는 실행하지 않고 반환한다. (SendGate.drain 이후 호출)
+     * 진행 중인 HTTP 호출은 interrupt 하지 않는다. (결과를 알 수 없으므로 다시 보내지 않는다)
+     * 대기 중이던 작업의 future 는 SHUTTING_DOWN 으로 완료된다.
+     * @return 전송되지 않은 part 목록
+     */
+    public List<Unsent> shutdown() {
+        List<Unsent> unsent = new ArrayList<>();
+        for (int i = 0; i < lanes.length; i++) {
+            ThreadPoolExecutor lane = lanes[i];
+            lane.shutdown();
+
+            // 대기 중인 작업을 먼저 꺼내고 그 사이 시작된 작업은 실행 중인 작업으로 회수
+            List<Runnable> queued = new ArrayList<>();
+            lane.getQueue().drainTo(queued);
+            LaneTask current = running.get(i);
+            if (current != null) {
+                current.abandon(unsent);
+            }
+            for (Runnable r : queued) {
+                LaneTask task = (LaneTask) r;
+                task.abandon(unsent);
+                task.future.completeExceptionally(new BotException("SHUTTING_DOWN", "Server is shutting down"));
+            }
+        }
+        return unsent;
+    }
+
+    public String getStatus() {
+        int active = 0;
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            active += lane.getActiveCount();
+            queued += lane.getQueue().size();
+        }
+        return String.format("Ordered Dispatcher - lanes: %d, active: %d, queued: %d", lanes.length, active, queued);
+    }
+
+    /**
+     * lane 작업 : part 를 순서대로 전송
+     * 다음 part 는 next 로 가져가므로 종료 시 next 를 끝으로 옮기면 시작하지 않은 part 만 회수된다.
+     */
+    private final class LaneTask implements Runnable {
+
+        private final int lane;
+        private final BotService botService;
+        private final List<BotMessage> parts;
+        private final long[] deliveryIds;
+        private final boolean journaled;
+        private final IntConsumer sent;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CompletableFuture<List<BotResult>> future = new CompletableFuture<>();
+
+        LaneTask(int lane, BotService botService, List<BotMessage> parts, long[] deliveryIds, boolean journaled, IntConsumer sent) {
+            this.lane 			= lane;
+            this.botService 	= botService;
+            this.parts 			= parts;
+            this.deliveryIds 	= deliveryIds;
+            this.journaled 		= journaled;
+            this.sent 			= sent;
+        }
+
+        @Override
+        public void run() {
+            running.set(lane, this);
+            List<BotResult> results = new ArrayList<>(parts.size());
+            int i;
+            try {
+                while ((i = next.getAndIncrement()) < parts.size()) {
+                    try {
+                        results.add(botService.sendMessage(parts.get(i), deliveryIds[i]));
+                        if (sent != null) {
+                            sent.accept(i);
+                        }
+                    } finally {
+                        SendGate.exit(deliveryIds[i]);
+                    }
+                }
+                if (results.size() == parts.size()) {
+                    future.complete(results);
+                } else {
+                    // 종료로 남은 part 를 회수당한 경우
+                    future.completeExceptionally(new BotException("SHUTTING_DOWN", "Server is shutting down"));
+                }
+            } catch (Throwable e) {
+                // 앞 부분이 실패하면 나머지는 전송하지 않는다.
+                for (int j = next.getAndSet(parts.size()); j < parts.size(); j++) {
+                    DeliveryStore.get().complete(deliveryIds[j], DeliveryState.CANCELLED, 0);
+                    SendGate.exit(deliveryIds[j]);
+                }
+                future.completeExceptionally(e);
+            } finally {
+                running.set(lane, null);
+            }
+        }
+
+        /**
+         * 아직 시작하지 않은 part 회수
+         */
+        void abandon(List<Unsent> unsent) {
+            int from = next.getAndSet(parts.size());
+            if (from > 0 && journaled && sent != null) {
+                // 진행 중인 part 는 결과를 알 수 없으므로 journal 에서 다시 보내지 않도록 진행으로 기록
+                sent.accept(Math.min(from, parts.size()) - 1);
+            }
+            if (from >= parts.size()) {
+                return;
+            }
+            for (int j = from; j < parts.size(); j++) {
+                SendGate.exit(deliveryIds[j]);
+            }
+            unsent.add(new Unsent(botService.tenant(), parts.subList(from, parts.size()),
+                    Arrays.copyOfRange(deliveryIds, from, parts.size()), journaled));
+        }
+    }
+}
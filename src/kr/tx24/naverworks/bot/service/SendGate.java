@@ -0,0 +1,110 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.tx24.naverworks.bot.BotMessage;
+
+/**
+ * 진행 중(in-flight) 전송 추적 및 종료 시 수신 차단
+ * - enter/exit 사이의 전송(lane 대기 포함)을 counter 로 세고, drain 중 counter 가 0 이 되면 Phaser 를 advance 시켜 알린다.
+ *   (Phaser party 는 65535 개로 제한되므로 전송마다 party 를 등록하지 않는다)
+ * - drain 이 시작되면 enter 는 false 를 반환하며 새 전송을 받지 않는다.
+ */
+public final class SendGate {
+
+    private static volatile boolean accepting = true;
+
+    private static final AtomicInteger count = new AtomicInteger();
+    // drain 중 마지막 exit 가 arrive
+    private static final Phaser phaser = new Phaser(1);
+    private static final ConcurrentHashMap<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private static final AtomicLong drained = new AtomicLong();
+
+    private SendGate() {
+    }
+
+    /**
+     * 진행 중인 전송
+     * - journaled : 예약 journal 에 이미 남아 있는 전송 (종료 시 다시 저장하지 않음)
+     */
+    public record InFlight(long deliveryId, String tenant, BotMessage message, boolean journaled) {
+    }
+
+    /**
+     * drain 결과
+     */
+    public record DrainResult(long drained, List<InFlight> abandoned, long elapsed) {
+    }
+
+    public static boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * 전송 시작 등록
+     * @return 종료 중이면 false (전송하지 않는다)
+     */
+    public static boolean enter(long deliveryId, String tenant, BotMessage message, boolean journaled) {
+        if (!accepting) {
+            return false;
+        }
+        count.incrementAndGet();
+        // drain 시작과 겹친 경우
+        if (!accepting) {
+            release();
+            return false;
+        }
+        inFlight.put(deliveryId, new InFlight(deliveryId, tenant, message, journaled));
+        return true;
+    }
+
+    /**
+     * 전송 종료 (성공/실패 무관)
+     */
+    public static void exit(long deliveryId) {
+        inFlight.remove(deliveryId);
+        if (!accepting) {
+            drained.incrementAndGet();
+        }
+        release();
+    }
+
+    private static void release() {
+        if (count.decrementAndGet() == 0 && !accepting) {
+            phaser.arrive();
+        }
+    }
+
+    public static int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 수신 차단 후 진행 중인 전송이 끝나기를 timeout 까지 대기
+     * @return 대기 중 완료된 건수와 timeout 까지 끝나지 않은 전송 목록
+     */
+    public static DrainResult drain(long timeoutMillis) {
+        long started = System.currentTimeMillis();
+        accepting = false;
+
+        try {
+            int phase = phaser.getPhase();
+            if (count.get() > 0) {
+                phaser.awaitAdvanceInterruptibly(phase, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            // 남은 전송은 abandoned 로 보고
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return new DrainResult(drained.get(), new ArrayList<>(inFlight.values()), System.currentTimeMillis() - started);
+    }
+}
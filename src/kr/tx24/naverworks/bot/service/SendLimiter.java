@@ -0,0 +1,115 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.Deadline;
+
+/**
+ * Tenant 별 전송 제한
+ * - rateLimitPerSecond : 초당 전송 수 (0 이하이면 제한 없음)
+ * - rateLimitWaitMillis: permit 대기 최대 시간
+ * - dailyQuota         : 일 전송 수 (0 이하이면 제한 없음)
+ * rate 를 먼저 확인한 뒤 quota 를 차감하고, 전송되지 않은 건(거절/timeout/실패)은 release 로 돌려준다.
+ * 날짜와 사용량은 하나의 불변 값으로 CAS 하므로 날짜가 바뀌는 순간에도 초기화와 차감이 섞이지 않는다.
+ */
+public class SendLimiter {
+
+    private final RateLimiter rateLimiter;
+    private final long waitMillis;
+    private final long dailyQuota;
+
+    private final AtomicReference<Quota> quota;
+
+    /**
+     * 날짜별 사용량
+     */
+    private record Quota(LocalDate day, long used) {
+    }
+
+    public SendLimiter(LinkedMap<String,Object> limitMap) {
+        this(limitMap, null);
+    }
+
+    /**
+     * @param previous 설정 reload 전 인스턴스 : 일 사용량과 RateLimiter 를 공유하여 reload 로 제한이 초기화되지 않게 한다.
+     */
+    public SendLimiter(LinkedMap<String,Object> limitMap, SendLimiter previous) {
+        double rate 	= limitMap.getDouble("rateLimitPerSecond", 0);
+        if (rate <= 0) {
+            this.rateLimiter = null;
+        } else if (previous != null && previous.rateLimiter != null) {
+            this.rateLimiter = previous.rateLimiter;
+            if (rateLimiter.getRate() != rate) {
+                rateLimiter.setRate(rate);
+            }
+        } else {
+            this.rateLimiter = RateLimiter.create(rate);
+        }
+        this.waitMillis = limitMap.getLong("rateLimitWaitMillis", 1000);
+        this.dailyQuota = limitMap.getLong("dailyQuota", 0);
+        this.quota 		= previous != null ? previous.quota : new AtomicReference<>(new Quota(LocalDate.now(), 0));
+    }
+
+    /**
+     * 전송 1건 허가 (초과 시 BotException, permit 대기는 deadline 까지만)
+     * @param deadline epoch millis (0 이면 rateLimitWaitMillis 까지 대기)
+     * @return quota 를 차감한 날짜 (release 에 전달, quota 가 없으면 null)
+     */
+    public LocalDate acquire(long deadline) throws BotException {
+        if (rateLimiter != null) {
+            long wait = Math.min(waitMillis, Deadline.remaining(deadline));
+            if (!rateLimiter.tryAcquire(wait, TimeUnit.MILLISECONDS)) {
+                if (wait < waitMillis) {
+                    throw Deadline.exceeded("rate limit wait");
+                }
+                throw new BotException("RATE_LIMITED", "rate limit exceeded: " + rateLimiter.getRate() + "/s");
+            }
+        }
+
+        if (dailyQuota <= 0) {
+            return null;
+        }
+        LocalDate today = LocalDate.now();
+        while (true) {
+            Quota current = quota.get();
+            long used = today.equals(current.day()) ? current.used() : 0;
+            if (used >= dailyQuota) {
+                throw new BotException("QUOTA_EXCEEDED", "daily quota exceeded: " + dailyQuota);
+            }
+            if (quota.compareAndSet(current, new Quota(today, used + 1))) {
+                return today;
+            }
+        }
+    }
+
+    /**
+     * 전송되지 않은 건의 quota 반환 (날짜가 바뀌었으면 무시)
+     */
+    public void release(LocalDate day) {
+        if (day == null) {
+            return;
+        }
+        while (true) {
+            Quota current = quota.get();
+            if (!day.equals(current.day()) || current.used() <= 0) {
+                return;
+            }
+            if (quota.compareAndSet(current, new Quota(day, current.used() - 1))) {
+                return;
+            }
+        }
+    }
+
+    public String getStatus() {
+        Quota current = quota.get();
+        return String.format("rate=%s/s, quota=%d/%d",
+                rateLimiter != null ? rateLimiter.getRate() : "unlimited",
+                LocalDate.now().equals(current.day()) ? current.used() : 0, dailyQuota);
+    }
+}
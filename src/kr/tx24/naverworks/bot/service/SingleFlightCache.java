@@ -0,0 +1,58 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+
+/**
+ * Guava Cache + 같은 키 동시 조회 합치기
+ *
+ * Cache.get(key, loader) 는 guava failureaccess 모듈(InternalFutureFailureAccess)이 classpath 에 있어야 동작하는데
+ * lib 에는 guava 본체만 있으므로 getIfPresent / put 만 사용하고, 조회 중인 키는 CompletableFuture 로 공유한다.
+ * 실패한 조회는 캐시하지 않는다. (대기 중이던 호출자는 같은 예외를 받는다)
+ */
+final class SingleFlightCache<V> {
+
+    private final Cache<String, V> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    SingleFlightCache(Cache<String, V> cache) {
+        this.cache = cache;
+    }
+
+    V get(String key, Callable<V> loader) throws Exception {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, created);
+        if (running == null) {
+            try {
+                value = loader.call();
+                cache.put(key, value);
+                created.complete(value);
+                return value;
+            } catch (Exception e) {
+                created.completeExceptionally(e);
+                throw e;
+            } finally {
+                loading.remove(key, created);
+            }
+        }
+
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    Cache<String, V> cache() {
+        return cache;
+    }
+}
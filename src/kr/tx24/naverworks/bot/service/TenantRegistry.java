@@ -0,0 +1,246 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.lang.CommonUtils;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.SharedMap;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * Tenant(NAVER WORKS 클라이언트/서비스 계정) 별 BotService 레지스트리
+ * 
+ * - "default" 는 최상위 oauth / api / bot / limit 블록을 사용
+ * - 그 외는 "tenants" 블록에서 이름으로 조회하며 api 는 최상위 api 위에 덮어쓴다.
+ * - 처음 사용될 때 생성(lazy)되고, 모든 tenant 가 하나의 커넥션 풀을 공유한다.
+ * - bot.botSecret 은 callback 서명 검증용 (없으면 callback.botSecret)
+ * 
+"tenants": {
+    "partner": {
+        "oauth" : { ... },
+        "bot"   : { "botId": "...", "botSecret": "..." },
+        "api"   : { "readTimeout": 10000 },
+        "limit" : { "rateLimitPerSecond": 20, "dailyQuota": 100000 }
+    }
+}
+ */
+public class TenantRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+    public static final String DEFAULT = "default";
+
+    private static final ConcurrentHashMap<String, CompletableFuture<BotService>> tenants = new ConcurrentHashMap<>();
+    private static volatile OkHttpClient sharedClient;
+    
+    // 현재 설정 (reload 시 교체)
+    private static volatile SharedMap<String,Object> config;
+
+    private TenantRegistry() {
+    }
+
+    /**
+     * tenant 이름으로 BotService 조회 (비어 있으면 default)
+     * 동시에 같은 tenant 를 요청하면 생성은 한 번만 수행된다.
+     */
+    public static BotService get(String name) throws Exception {
+        String tenant = CommonUtils.isBlank(name) ? DEFAULT : name;
+
+        CompletableFuture<BotService> future = tenants.get(tenant);
+        if (future == null) {
+            CompletableFuture<BotService> created = new CompletableFuture<>();
+            future = tenants.putIfAbsent(tenant, created);
+            if (future == null) {
+                future = created;
+                try {
+                    created.complete(create(tenant, tenantConfig(tenant, config()), null));
+                } catch (Exception e) {
+                    // 실패한 tenant 는 다음 요청에서 다시 생성 시도
+                    tenants.remove(tenant, created);
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 생성된 tenant 이름 목록
+     */
+    public static Set<String> names() {
+        return tenants.keySet();
+    }
+
+    /**
+     * 설정 변경 반영
+     * 설정이 바뀐 tenant 만 새 설정으로 다시 생성(토큰 선발급 포함)한 뒤 교체한다.
+     * 전송 제한(일 사용량, rate)과 첨부파일 / 사용자 조회 캐시는 이전 인스턴스에서 이어받는다.
+     * 진행 중인 요청은 기존 인스턴스로 끝나고, 이후 요청부터 새 인스턴스를 사용한다.
+     * 생성에 실패한 tenant 는 기존 인스턴스를 유지한다. 아직 생성 중인 tenant 가 있으면 false (다시 시도 필요)
+     * @return 모든 tenant 가 반영(또는 변경 없음)되었으면 true
+     */
+    public static synchronized boolean reload(SharedMap<String,Object> newConfig) {
+        config = newConfig;
+
+        boolean applied = true;
+        for (Map.Entry<String, CompletableFuture<BotService>> entry : tenants.entrySet()) {
+            String tenant = entry.getKey();
+            CompletableFuture<BotService> current = entry.getValue();
+            if (!current.isDone()) {
+                // 생성 중인 tenant 는 이전 설정으로 만들어지고 있으므로 미반영으로 두고 watcher 가 다시 시도
+                applied = false;
+                logger.info("Tenant still loading, retry reload later: {}", tenant);
+                continue;
+            }
+            if (current.isCompletedExceptionally()) {
+                // 생성 실패는 다음 요청에서 새 설정으로 다시 생성
+                continue;
+            }
+
+            try {
+                BotService prev = current.join();
+                TenantConfig next = tenantConfig(tenant, newConfig);
+                if (next.equals(prev.config())) {
+                    logger.debug("Tenant config unchanged: {}", tenant);
+                    continue;
+                }
+
+                BotService service = create(tenant, next, prev);
+                if (tenants.replace(tenant, current, CompletableFuture.completedFuture(service))) {
+                    prev.close();
+                    logger.info("Tenant reloaded: {}", tenant);
+                } else {
+                    service.close();
+                }
+            } catch (Exception e) {
+                applied = false;
+                logger.error("Tenant reload failed, keep previous: {}", tenant, e);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * callback 서명 검증용 bot secret (현재 설정 기준)
+     * tenants 의 bot.botId 가 일치하면 그 bot.botSecret, 아니면 callback.botSecret (default tenant)
+     * @return 없으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public static String botSecret(String botId) {
+        SharedMap<String,Object> conf = config();
+        if (!CommonUtils.isBlank(botId) && conf.get("tenants") instanceof Map<?, ?> tenantsMap) {
+            for (Object tenant : tenantsMap.values()) {
+                if (tenant instanceof Map<?, ?> tenantMap) {
+                    LinkedMap<String,Object> botMap = toLinkedMap(((Map<String,Object>) tenantMap).get("bot"));
+                    if (botId.equals(botMap.getString("botId"))) {
+                        return CommonUtils.isBlank(botMap.getString("botSecret")) ? null : botMap.getString("botSecret");
+                    }
+                }
+            }
+        }
+        String secret = toLinkedMap(conf.get("callback")).getString("botSecret");
+        return CommonUtils.isBlank(secret) ? null : secret;
+    }
+
+    private static SharedMap<String,Object> config() {
+        if (config == null) {
+            config = INetConfigLoader.getConfigMap();
+        }
+        return config;
+    }
+
+    /**
+     * tenant 에 적용되는 설정 (reload 시 변경 여부 비교)
+     */
+    record TenantConfig(LinkedMap<String,Object> api, LinkedMap<String,Object> oauth, LinkedMap<String,Object> bot,
+            LinkedMap<String,Object> limit, LinkedMap<String,Object> attachment, LinkedMap<String,Object> directory) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TenantConfig tenantConfig(String tenant, SharedMap<String,Object> conf) {
+        LinkedMap<String,Object> apiMap 	= toLinkedMap(conf.get("api"));
+        LinkedMap<String,Object> attachMap 	= toLinkedMap(conf.get("attachment"));
+        LinkedMap<String,Object> directoryMap = toLinkedMap(conf.get("directory"));
+
+        if (DEFAULT.equals(tenant)) {
+            return new TenantConfig(apiMap, oauth(toLinkedMap(conf.get("oauth")), directoryMap), toLinkedMap(conf.get("bot")),
+                    toLinkedMap(conf.get("limit")), attachMap, directoryMap);
+        }
+
+        Object tenantsMap = conf.get("tenants");
+        if (!(tenantsMap instanceof Map) || !(((Map<String,Object>) tenantsMap).get(tenant) instanceof Map)) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        LinkedMap<String,Object> tenantMap = toLinkedMap(((Map<String,Object>) tenantsMap).get(tenant));
+        apiMap.putAll(toLinkedMap(tenantMap.get("api")));
+        return new TenantConfig(apiMap, oauth(toLinkedMap(tenantMap.get("oauth")), directoryMap), toLinkedMap(tenantMap.get("bot")),
+                toLinkedMap(tenantMap.get("limit")), attachMap, directoryMap);
+    }
+
+    /**
+     * directory 가 enabled 이면 scope 에 user.read 추가 (Developer Console 에서 앱에 user.read 권한을 추가해야 한다)
+     * 기본 scope 는 bot 만 요청하므로 user.read 권한이 없는 앱도 그대로 동작한다.
+     */
+    private static LinkedMap<String,Object> oauth(LinkedMap<String,Object> oauthMap, LinkedMap<String,Object> directoryMap) {
+        if (directoryMap.isTrue("enabled")) {
+            String scope = oauthMap.getString("scope", "bot");
+            if (!Arrays.asList(scope.trim().split("\\s+")).contains(UserDirectory.SCOPE)) {
+                oauthMap.put("scope", scope.trim() + " " + UserDirectory.SCOPE);
+            }
+        }
+        return oauthMap;
+    }
+
+    /**
+     * tenant 생성
+     * @param previous reload 시 교체될 인스턴스 (전송 제한 / 캐시를 이어받음, 최초 생성이면 null)
+     */
+    private static BotService create(String tenant, TenantConfig conf, BotService previous) throws Exception {
+        long started = System.currentTimeMillis();
+        BotService service = new BotService(tenant, conf, sharedClient(conf.api()), previous);
+        logger.info("Tenant loaded: {}, elapsed={}ms", tenant, System.currentTimeMillis() - started);
+        return service;
+    }
+
+    /**
+     * 모든 tenant 가 공유하는 OkHttpClient (커넥션 풀, Dispatcher)
+     */
+    private static OkHttpClient sharedClient(LinkedMap<String,Object> apiMap) {
+        if (sharedClient == null) {
+            synchronized (TenantRegistry.class) {
+                if (sharedClient == null) {
+                    sharedClient = new OkHttpClient.Builder()
+                            .connectionPool(new ConnectionPool(
+                                    apiMap.getInt("maxIdleConnections", 16),
+                                    apiMap.getLong("keepAliveMinutes", 5),
+                                    TimeUnit.MINUTES))
+                            .build();
+                }
+            }
+        }
+        return sharedClient;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LinkedMap<String,Object> toLinkedMap(Object value) {
+        if (value instanceof Map) {
+            return new LinkedMap<>((Map<String,Object>) value);
+        }
+        return new LinkedMap<>();
+    }
+}
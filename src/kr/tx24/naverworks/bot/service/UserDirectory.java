@@ -0,0 +1,142 @@
+package kr.tx24.naverworks.bot.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.SharedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.oauth.TokenManager;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 이메일 / 사번으로 userId 조회 (Directory API)
+ * - email      : GET /users/{email}
+ * - employeeNo : GET /users/externalKey:{employeeNo}  (사번을 externalKey 로 등록한 경우)
+ * - enabled 가 true 일 때만 사용한다. (false 이면 DIRECTORY_DISABLED)
+ *   enabled 이면 토큰 요청 scope 에 user.read 가 추가되므로 Developer Console 에서 앱에 user.read 권한을 먼저 추가해야 한다.
+ *
+"directory": {
+    "enabled": false,
+    "cacheSize": 10000,
+    "ttlMinutes": 60,
+    "negativeTtlMinutes": 5
+}
+ *
+ * - 조회 결과는 크기/TTL 제한 캐시에 보관하고, 없는 사용자(404)는 negativeTtlMinutes 동안 따로 캐시한다.
+ * - 같은 키에 대한 동시 조회는 하나의 API 호출로 합쳐진다. (SingleFlightCache)
+ * - 404 이외의 오류는 캐시하지 않는다.
+ */
+public class UserDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectory.class);
+
+    public static final String EMAIL 		= "email";
+    public static final String EMPLOYEE_NO 	= "employeeNo";
+    public static final String SCOPE 		= "user.read";
+
+    private final HttpUrl baseUrl;
+    private final TokenManager tokenManager;
+    private final OkHttpClient httpClient;
+    private final JacksonUtils json;
+    private final boolean enabled;
+
+    // type:value -> userId
+    private final SingleFlightCache<String> found;
+    // type:value (404)
+    private final Cache<String, Boolean> notFound;
+
+    /**
+     * @param previous 설정 reload 전 인스턴스 : 조회 캐시를 그대로 이어받는다. (캐시 크기 / TTL 변경은 재기동 후 반영)
+     */
+    public UserDirectory(String baseUrl, TokenManager tokenManager, OkHttpClient httpClient, JacksonUtils json,
+            LinkedMap<String,Object> directoryMap, UserDirectory previous) {
+        this.baseUrl 		= HttpUrl.get(baseUrl);
+        this.tokenManager 	= tokenManager;
+        this.httpClient 	= httpClient;
+        this.json 			= json;
+        this.enabled 		= directoryMap.isTrue("enabled");
+
+        if (previous != null) {
+            this.found 	  = previous.found;
+            this.notFound = previous.notFound;
+            return;
+        }
+
+        this.found = new SingleFlightCache<>(CacheBuilder.newBuilder()
+                .maximumSize(directoryMap.getLong("cacheSize", 10000))
+                .expireAfterWrite(directoryMap.getLong("ttlMinutes", 60), TimeUnit.MINUTES)
+                .recordStats()
+                .<String, String>build());
+        this.notFound = CacheBuilder.newBuilder()
+                .maximumSize(directoryMap.getLong("cacheSize", 10000))
+                .expireAfterWrite(directoryMap.getLong("negativeTtlMinutes", 5), TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * userId 조회
+     * @param type email 또는 employeeNo
+     * @throws BotException 없는 사용자 (USER_NOT_FOUND), 비활성 (DIRECTORY_DISABLED)
+     */
+    public String resolve(String type, String value) throws Exception {
+        if (!enabled) {
+            throw new BotException("DIRECTORY_DISABLED", "directory is not enabled");
+        }
+        String key = type + ":" + value;
+        if (notFound.getIfPresent(key) != null) {
+            throw new BotException("USER_NOT_FOUND", "User not found: " + key);
+        }
+
+        return found.get(key, () -> lookup(key, type, value));
+    }
+
+    private String lookup(String key, String type, String value) throws Exception {
+        String id = EMPLOYEE_NO.equals(type) ? "externalKey:" + value : value;
+        // path segment 단위로 인코딩 (email 의 +, 사번의 / 등)
+        HttpUrl url = baseUrl.newBuilder()
+                .addPathSegment("users")
+                .addPathSegment(id)
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader("Authorization", "Bearer " + tokenManager.getAccessToken())
+                .build();
+
+        try (Response response = httpClient.newCall(request).execute()) {
+            String responseBody = response.body() != null ? response.body().string() : "";
+            if (response.code() == 404) {
+                notFound.put(key, Boolean.TRUE);
+                throw new BotException("USER_NOT_FOUND", "User not found: " + key);
+            }
+            if (!response.isSuccessful()) {
+                logger.warn("User lookup failed: code={}, key={}, body={}", response.code(), key, responseBody);
+                throw new Exception("사용자 조회 실패: " + response.code() + ", " + responseBody);
+            }
+
+            SharedMap<String,Object> user = json.fromJson(responseBody, TypeRegistry.MAP_SHAREDMAP_OBJECT);
+            String userId = user.getString("userId");
+            logger.debug("User resolved: {} -> {}", key, userId);
+            return userId;
+        }
+    }
+
+    /**
+     * 캐시 정보 (디버깅용)
+     */
+    public String getCacheInfo() {
+        return String.format("User Directory - found: %d, notFound: %d, stats: %s",
+                found.cache().size(), notFound.size(), found.cache().stats());
+    }
+}
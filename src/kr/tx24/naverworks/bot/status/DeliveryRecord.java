@@ -0,0 +1,39 @@
+package kr.tx24.naverworks.bot.status;
+
+import kr.tx24.lib.map.LinkedMap;
+
+/**
+ * 전송 상태 조회 결과 (DeliveryStore 슬롯의 복사본)
+ * - startedAt : lane 이 처음 HTTP 호출을 시작한 시각, 시작 전이면 0
+ * - completedAt : SENT/FAILED/CANCELLED/EXPIRED 시각, 진행 중이면 0
+ */
+public record DeliveryRecord(long id, DeliveryState state, int attempts, int httpCode, long enqueuedAt, long startedAt, long completedAt) {
+
+    /**
+     * queue 대기 시간 (ms), 시작 전이면 -1
+     */
+    public long queueWait() {
+        return startedAt == 0 ? -1 : startedAt - enqueuedAt;
+    }
+
+    /**
+     * 완료까지 걸린 시간 (ms), 진행 중이면 -1
+     */
+    public long latency() {
+        return completedAt == 0 ? -1 : completedAt - enqueuedAt;
+    }
+
+    public LinkedMap<String,Object> toMap() {
+        LinkedMap<String,Object> map = new LinkedMap<>();
+        map.put("deliveryId", Long.toString(id));
+        map.put("state", state.name());
+        map.put("attempts", attempts);
+        map.put("httpCode", httpCode);
+        map.put("enqueuedAt", enqueuedAt);
+        map.put("startedAt", startedAt);
+        map.put("completedAt", completedAt);
+        map.put("queueWait", queueWait());
+        map.put("latency", latency());
+        return map;
+    }
+}
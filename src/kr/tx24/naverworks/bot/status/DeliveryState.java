@@ -0,0 +1,20 @@
+package kr.tx24.naverworks.bot.status;
+
+/**
+ * 메시지 전송 상태 (DeliveryStore 에는 ordinal 이 byte 로 저장된다)
+ */
+public enum DeliveryState {
+    QUEUED,
+    SCHEDULED,
+    SENDING,
+    SENT,
+    FAILED,
+    CANCELLED,
+    EXPIRED;
+
+    private static final DeliveryState[] VALUES = values();
+
+    static DeliveryState of(byte ordinal) {
+        return VALUES[ordinal];
+    }
+}
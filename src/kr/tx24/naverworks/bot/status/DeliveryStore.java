@@ -0,0 +1,210 @@
+package kr.tx24.naverworks.bot.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+
+/**
+ * 메시지 전송 상태 저장소
+ *
+"status": {
+    "capacity": 262144
+}
+ *
+ * - 고정 크기 ring (capacity 는 2의 거듭제곱으로 올림), 슬롯당 36 byte 의 primitive 배열로 구성되어 메모리 사용량이 일정하다.
+ * - deliveryId 는 단조 증가하는 long 이며 slot = id & mask 이므로 별도 index 없이 O(1) 로 조회된다.
+ *   ring 이 한 바퀴 돌아 덮어쓴 id 는 조회되지 않는다.
+ * - 전송 시작 시각은 등록 시각으로부터의 ms(int)로 저장한다. (queue 대기 / HTTP 구간을 나누어 볼 수 있도록)
+ * - channel 은 64bit 해시로만 저장하고 channel 조회는 최근 슬롯부터 역순으로 스캔한다.
+ * - id 슬롯을 기록 전/후로 비교하여 덮어쓰는 중인 슬롯은 읽지 않는다. (진단용이므로 update 간 순서는 보장하지 않음)
+ */
+public class DeliveryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryStore.class);
+
+    private static final int DEFAULT_CAPACITY = 262144;
+    private static final int NOT_COMPLETED = -1;
+    private static final int NOT_STARTED = -1;
+    private static final int SLOT_BYTES = 36;
+
+    private final int capacity;
+    private final int mask;
+    private final long firstId;
+    private final AtomicLong sequence;
+
+    private final AtomicLongArray ids;
+    private final long[] channels;
+    private final long[] enqueuedAt;
+    private final int[] waited;
+    private final int[] elapsed;
+    private final short[] httpCodes;
+    private final byte[] states;
+    private final byte[] attempts;
+
+    DeliveryStore(int requested) {
+        this.capacity 	= Integer.highestOneBit((Math.max(1024, requested) - 1) << 1);
+        this.mask 		= capacity - 1;
+
+        // 재기동 후에도 이전 기동의 id 와 겹치지 않도록 기동 시각 기준으로 시작 (0 은 빈 슬롯)
+        this.firstId 	= System.currentTimeMillis() << 12;
+        this.sequence 	= new AtomicLong(firstId);
+
+        this.ids 		= new AtomicLongArray(capacity);
+        this.channels 	= new long[capacity];
+        this.enqueuedAt = new long[capacity];
+        this.waited 	= new int[capacity];
+        this.elapsed 	= new int[capacity];
+        this.httpCodes 	= new short[capacity];
+        this.states 	= new byte[capacity];
+        this.attempts 	= new byte[capacity];
+
+        logger.info("DeliveryStore created: capacity={}, memory={}KB", capacity, (long) capacity * SLOT_BYTES / 1024);
+    }
+
+    private static class Holder {
+        static final DeliveryStore INSTANCE = create();
+
+        private static DeliveryStore create() {
+            LinkedMap<String,Object> statusMap = INetConfigLoader.getMap("status", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+            return new DeliveryStore(statusMap == null ? DEFAULT_CAPACITY : statusMap.getInt("capacity", DEFAULT_CAPACITY));
+        }
+    }
+
+    public static DeliveryStore get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 신규 등록
+     * @return deliveryId
+     */
+    public long enqueue(String channelId, DeliveryState state) {
+        long id = sequence.incrementAndGet();
+        int slot = (int) (id & mask);
+
+        ids.set(slot, 0);
+        channels[slot] 		= hash(channelId);
+        enqueuedAt[slot] 	= System.currentTimeMillis();
+        waited[slot] 		= NOT_STARTED;
+        elapsed[slot] 		= NOT_COMPLETED;
+        httpCodes[slot] 	= 0;
+        states[slot] 		= (byte) state.ordinal();
+        attempts[slot] 		= 0;
+        ids.set(slot, id);
+        return id;
+    }
+
+    /**
+     * 전송 시도 시작 (attempts 증가, 첫 시도이면 시작 시각 기록)
+     * lane 이 HTTP 호출을 시작할 때 호출한다.
+     * @return 등록 시각 (없거나 이미 덮어쓴 경우 0)
+     */
+    public long sending(long id) {
+        int slot = (int) (id & mask);
+        if (ids.get(slot) != id) {
+            return 0;
+        }
+        states[slot] = (byte) DeliveryState.SENDING.ordinal();
+        if (waited[slot] == NOT_STARTED) {
+            waited[slot] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, System.currentTimeMillis() - enqueuedAt[slot]));
+        }
+        if (attempts[slot] < Byte.MAX_VALUE) {
+            attempts[slot]++;
+        }
+        return enqueuedAt[slot];
+    }
+
+    /**
+     * 완료 (SENT / FAILED / CANCELLED / EXPIRED)
+     */
+    public void complete(long id, DeliveryState state, int httpCode) {
+        int slot = (int) (id & mask);
+        if (ids.get(slot) != id) {
+            return;
+        }
+        long spent = System.currentTimeMillis() - enqueuedAt[slot];
+        httpCodes[slot] = (short) httpCode;
+        elapsed[slot] 	= (int) Math.min(Integer.MAX_VALUE, Math.max(0, spent));
+        states[slot] 	= (byte) state.ordinal();
+    }
+
+    /**
+     * id 조회 (없거나 이미 덮어쓴 경우 null)
+     */
+    public DeliveryRecord find(long id) {
+        int slot = (int) (id & mask);
+        if (id <= firstId || ids.get(slot) != id) {
+            return null;
+        }
+
+        DeliveryState state = DeliveryState.of(states[slot]);
+        int attempt 		= attempts[slot];
+        int httpCode 		= httpCodes[slot];
+        long enqueued 		= enqueuedAt[slot];
+        int wait 			= waited[slot];
+        int spent 			= elapsed[slot];
+
+        if (ids.get(slot) != id) {
+            return null;
+        }
+        return new DeliveryRecord(id, state, attempt, httpCode, enqueued,
+                wait == NOT_STARTED ? 0 : enqueued + wait,
+                spent == NOT_COMPLETED ? 0 : enqueued + spent);
+    }
+
+    /**
+     * channel 조회 (최신순, 최대 limit 건)
+     */
+    public List<DeliveryRecord> findByChannel(String channelId, int limit) {
+        List<DeliveryRecord> records = new ArrayList<>(Math.min(limit, 64));
+        long channel = hash(channelId);
+        long last = sequence.get();
+        long oldest = Math.max(firstId + 1, last - capacity + 1);
+
+        for (long id = last; id >= oldest && records.size() < limit; id--) {
+            if (channels[(int) (id & mask)] != channel) {
+                continue;
+            }
+            DeliveryRecord record = find(id);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 저장소 정보 (디버깅용)
+     */
+    public LinkedMap<String,Object> getStatus() {
+        long issued = sequence.get() - firstId;
+        LinkedMap<String,Object> map = new LinkedMap<>();
+        map.put("capacity", capacity);
+        map.put("issued", issued);
+        map.put("retained", Math.min(issued, capacity));
+        map.put("memoryKB", (long) capacity * SLOT_BYTES / 1024);
+        return map;
+    }
+
+    /**
+     * FNV-1a 64bit
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+}
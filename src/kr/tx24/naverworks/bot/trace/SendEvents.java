@@ -0,0 +1,129 @@
+package kr.tx24.naverworks.bot.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+
+/**
+ * 전송 경로 JFR 이벤트
+ * - 모든 이벤트는 correlationId (deliveryId) 로 한 요청의 단계들을 묶어 볼 수 있다.
+ * - 녹화 상태는 FlightRecorderListener 로 상태가 바뀔 때만 갱신하고, 녹화 중이 아니면 전송 경로에서 이벤트 객체를 만들지 않는다.
+ *   (녹화 중이면 이벤트 객체를 만든 뒤 isEnabled 로 이벤트별 설정을 확인)
+ *
+ * java -XX:StartFlightRecording=filename=send.jfr,settings=profile ...
+ * jfr print --categories NaverWorks send.jfr
+ */
+public final class SendEvents {
+
+    private static volatile boolean recording;
+
+    static {
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    update(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording changed) {
+                    update(FlightRecorder.getFlightRecorder());
+                }
+            });
+        } catch (RuntimeException e) {
+            // JFR 을 사용할 수 없는 JVM
+            recording = false;
+        }
+    }
+
+    private SendEvents() {
+    }
+
+    private static void update(FlightRecorder recorder) {
+        recording = recorder.getRecordings().stream().anyMatch(r -> r.getState() == RecordingState.RUNNING);
+    }
+
+    /**
+     * JFR 녹화 중인지 (volatile 읽기만 하므로 전송마다 호출해도 된다)
+     */
+    static boolean isRecording() {
+        return recording;
+    }
+
+    @Category({"TX24", "NaverWorks"})
+    @StackTrace(false)
+    abstract static class SendStageEvent extends Event {
+        @Label("Correlation Id")
+        long correlationId;
+
+        @Label("Tenant")
+        String tenant;
+    }
+
+    @Name("kr.tx24.naverworks.Send")
+    @Label("Send")
+    @Description("메시지 전송 전체 (lane 에서 전송 시작 ~ 응답 처리)")
+    static final class SendEvent extends SendStageEvent {
+        @Label("Target")
+        String target;
+
+        @Label("HTTP Code")
+        int httpCode;
+
+        @Label("Queue Millis")
+        @Description("등록 ~ 전송 시작 (lane 대기)")
+        long queueMillis;
+    }
+
+    @Name("kr.tx24.naverworks.Limit")
+    @Label("Send Limit Wait")
+    static final class LimitEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.Token")
+    @Label("Token Acquire")
+    static final class TokenEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.Encode")
+    @Label("JSON Encode")
+    static final class EncodeEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.ConnectionAcquire")
+    @Label("Connection Acquire")
+    @Description("call 시작 ~ 커넥션 획득 (새 커넥션이면 DNS/connect/TLS 포함)")
+    static final class ConnectionAcquireEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.Server")
+    @Label("Server")
+    @Description("요청 전송 ~ 응답 헤더 수신")
+    static final class ServerEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.Read")
+    @Label("Response Read")
+    static final class ReadEvent extends SendStageEvent {
+    }
+
+    @Name("kr.tx24.naverworks.TokenRefresh")
+    @Label("Token Refresh")
+    @Category({"TX24", "NaverWorks"})
+    @Description("Access Token 발급 요청 (JWT 생성 + token 서버 호출)")
+    @StackTrace(false)
+    public static final class TokenRefreshEvent extends Event {
+        @Label("Client Id")
+        public String clientId;
+
+        @Label("Success")
+        public boolean success;
+    }
+}
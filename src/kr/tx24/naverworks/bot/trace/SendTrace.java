@@ -0,0 +1,174 @@
+package kr.tx24.naverworks.bot.trace;
+
+import java.util.function.Supplier;
+
+import kr.tx24.lib.map.LinkedMap;
+
+/**
+ * 한 번의 전송에 대한 단계별 시간 (전송 스레드 하나에서만 사용)
+ *
+ * LIMIT -> TOKEN -> ENCODE -> ACQUIRE -> SERVER -> READ
+ *
+ * - begin(stage) 은 열려 있는 이전 단계를 닫고 새 단계를 연다. 같은 단계가 여러 번 열리면(재시도 등) 시간은 누적된다.
+ * - JFR 녹화 중이면 단계마다 이벤트를 함께 기록한다. (녹화 중이 아니면 이벤트 객체를 만들지 않음)
+ * - finish() 에서 전체 이벤트를 기록하고 SlowSendRecorder 에 넘긴다.
+ */
+public final class SendTrace {
+
+    public enum Stage {
+        LIMIT	(SendEvents.LimitEvent::new),
+        TOKEN	(SendEvents.TokenEvent::new),
+        ENCODE	(SendEvents.EncodeEvent::new),
+        ACQUIRE	(SendEvents.ConnectionAcquireEvent::new),
+        SERVER	(SendEvents.ServerEvent::new),
+        READ	(SendEvents.ReadEvent::new);
+
+        private final Supplier<SendEvents.SendStageEvent> event;
+        private final String key = name().toLowerCase() + "Ms";
+
+        Stage(Supplier<SendEvents.SendStageEvent> event) {
+            this.event = event;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long correlationId;
+    private final String tenant;
+    private final String target;
+    private final long startedAt;
+    private final long queueMillis;
+    private final long start;
+    private final long[] nanos = new long[STAGES.length];
+    private final SendEvents.SendEvent event;
+
+    private Stage open;
+    private long openedAt;
+    private SendEvents.SendStageEvent openEvent;
+    private boolean newConnection;
+    private long totalNanos;
+    private int httpCode;
+
+    /**
+     * @param enqueuedAt DeliveryStore 등록 시각 (모르면 0)
+     */
+    public SendTrace(long correlationId, String tenant, String target, long enqueuedAt) {
+        this.correlationId 	= correlationId;
+        this.tenant 		= tenant;
+        this.target 		= target;
+        this.startedAt 		= System.currentTimeMillis();
+        this.queueMillis 	= enqueuedAt > 0 ? Math.max(0, startedAt - enqueuedAt) : 0;
+        this.start 			= System.nanoTime();
+
+        SendEvents.SendEvent e = SendEvents.isRecording() ? new SendEvents.SendEvent() : null;
+        if (e != null && e.isEnabled()) {
+            e.begin();
+            this.event = e;
+        } else {
+            this.event = null;
+        }
+    }
+
+    public long correlationId() {
+        return correlationId;
+    }
+
+    /**
+     * 단계 시작 (열려 있는 단계는 닫는다)
+     */
+    public void begin(Stage stage) {
+        long now = close(System.nanoTime());
+        open 	 = stage;
+        openedAt = now;
+
+        if (!SendEvents.isRecording()) {
+            return;
+        }
+        SendEvents.SendStageEvent e = stage.event.get();
+        if (e.isEnabled()) {
+            e.correlationId = correlationId;
+            e.tenant 		= tenant;
+            e.begin();
+            openEvent = e;
+        }
+    }
+
+    /**
+     * 단계 종료 (해당 단계가 열려 있을 때만)
+     */
+    public void end(Stage stage) {
+        if (open == stage) {
+            close(System.nanoTime());
+        }
+    }
+
+    /**
+     * 이번 전송에서 새 커넥션을 맺었는지 (OkHttp connectStart)
+     */
+    public void newConnection() {
+        this.newConnection = true;
+    }
+
+    /**
+     * 전송 종료 : 전체 이벤트 기록 후 느린 요청 후보로 넘긴다.
+     */
+    public void finish(int httpCode) {
+        long now = close(System.nanoTime());
+        this.httpCode 	= httpCode;
+        this.totalNanos = now - start;
+
+        if (event != null) {
+            event.correlationId = correlationId;
+            event.tenant 		= tenant;
+            event.target 		= target;
+            event.httpCode 		= httpCode;
+            event.queueMillis 	= queueMillis;
+            event.commit();
+        }
+        SlowSendRecorder.get().offer(this);
+    }
+
+    private long close(long now) {
+        if (open != null) {
+            nanos[open.ordinal()] += now - openedAt;
+            open = null;
+            if (openEvent != null) {
+                openEvent.commit();
+                openEvent = null;
+            }
+        }
+        return now;
+    }
+
+    long startedAt() {
+        return startedAt;
+    }
+
+    /**
+     * 느린 요청 비교 기준 (lane 대기 포함)
+     */
+    long totalNanos() {
+        return totalNanos + queueMillis * 1_000_000L;
+    }
+
+    public LinkedMap<String,Object> toMap() {
+        LinkedMap<String,Object> map = new LinkedMap<>();
+        map.put("correlationId"	, Long.toString(correlationId));
+        map.put("tenant"		, tenant);
+        map.put("target"		, target);
+        map.put("startedAt"		, startedAt);
+        map.put("httpCode"		, httpCode);
+        map.put("totalMs"		, queueMillis + millis(totalNanos));
+        map.put("queueMs"		, (double) queueMillis);
+        map.put("sendMs"		, millis(totalNanos));
+        for (Stage stage : STAGES) {
+            map.put(stage.key, millis(nanos[stage.ordinal()]));
+        }
+        map.put("newConnection"	, newConnection);
+        return map;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000d) / 1_000d;
+    }
+}
@@ -0,0 +1,126 @@
+package kr.tx24.naverworks.bot.trace;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+
+/**
+ * 분당 가장 느린 전송 N 건 (항상 켜져 있음)
+ *
+"trace": {
+    "slowTopN": 20,
+    "slowMinutes": 10
+}
+ *
+ * - 분 단위 bucket 을 slowMinutes 개의 ring 으로 두고, bucket 마다 전체 시간(lane 대기 포함) 기준 min-heap 에 상위 N 건만 남긴다.
+ * - bucket 이 가득 차면 최소값(floor)을 volatile 로 공개하여, floor 보다 빠른 요청(대부분)은 lock 없이 바로 버린다.
+ * - 조회는 /bot/slow
+ */
+public final class SlowSendRecorder {
+
+    private static final long MINUTE = 60_000L;
+    private static final DateTimeFormatter MINUTE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    private static final Comparator<SendTrace> FASTEST_FIRST = Comparator.comparingLong(SendTrace::totalNanos);
+
+    private static final class Holder {
+        private static final SlowSendRecorder INSTANCE = new SlowSendRecorder(
+                INetConfigLoader.getMap("trace", TypeRegistry.MAP_LINKEDMAP_OBJECT));
+    }
+
+    private final int topN;
+    private final Bucket[] buckets;
+
+    private SlowSendRecorder(LinkedMap<String,Object> traceMap) {
+        if (traceMap == null) {
+            traceMap = new LinkedMap<>();
+        }
+        this.topN 	 = Math.max(1, traceMap.getInt("slowTopN", 20));
+        this.buckets = new Bucket[Math.max(1, traceMap.getInt("slowMinutes", 10))];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public static SlowSendRecorder get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 완료된 전송 (floor 보다 빠르면 lock 없이 반환)
+     */
+    void offer(SendTrace trace) {
+        long minute = trace.startedAt() / MINUTE;
+        Bucket bucket = buckets[(int) (minute % buckets.length)];
+        long total = trace.totalNanos();
+
+        if (bucket.minute == minute && total <= bucket.floor) {
+            return;
+        }
+        synchronized (bucket) {
+            if (bucket.minute != minute) {
+                if (bucket.minute > minute) {
+                    return;		// ring 보다 오래된 요청
+                }
+                bucket.heap.clear();
+                bucket.floor  = 0;
+                bucket.minute = minute;
+            }
+            bucket.heap.offer(trace);
+            if (bucket.heap.size() > topN) {
+                bucket.heap.poll();
+            }
+            if (bucket.heap.size() == topN) {
+                bucket.floor = bucket.heap.peek().totalNanos();
+            }
+        }
+    }
+
+    /**
+     * 최근 분부터, 분마다 느린 순서
+     */
+    public List<LinkedMap<String,Object>> dump() {
+        long oldest = System.currentTimeMillis() / MINUTE - buckets.length + 1;
+
+        List<LinkedMap<String,Object>> minutes = new ArrayList<>();
+        for (Bucket bucket : buckets) {
+            List<SendTrace> traces;
+            long minute;
+            synchronized (bucket) {
+                minute = bucket.minute;
+                if (minute < oldest || bucket.heap.isEmpty()) {
+                    continue;
+                }
+                traces = new ArrayList<>(bucket.heap);
+            }
+            traces.sort(FASTEST_FIRST.reversed());
+
+            LinkedMap<String,Object> map = new LinkedMap<>();
+            map.put("minute"	, MINUTE_FORMAT.format(Instant.ofEpochMilli(minute * MINUTE)));
+            map.put("requests"	, traces.stream().map(SendTrace::toMap).toList());
+            minutes.add(map);
+        }
+        minutes.sort(Comparator.comparing((LinkedMap<String,Object> map) -> map.getString("minute")).reversed());
+        return minutes;
+    }
+
+    public LinkedMap<String,Object> getStatus() {
+        LinkedMap<String,Object> map = new LinkedMap<>();
+        map.put("slowTopN"		, topN);
+        map.put("slowMinutes"	, buckets.length);
+        return map;
+    }
+
+    private static final class Bucket {
+        private final PriorityQueue<SendTrace> heap = new PriorityQueue<>(FASTEST_FIRST);
+        private volatile long minute = -1;
+        private volatile long floor;
+    }
+}
@@ -0,0 +1,50 @@
+package kr.tx24.naverworks.bot.trace;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+
+/**
+ * OkHttp call 단계를 SendTrace 에 기록 (Request tag 에 SendTrace 가 있는 call 만)
+ *
+ * callStart ~ connectionAcquired 	: ACQUIRE (새 커넥션이면 DNS/connect/TLS 포함)
+ * connectionAcquired ~ responseHeadersStart : SERVER (요청 전송 + 서버 처리)
+ *
+ * 동기 execute() 는 호출 스레드에서 이벤트가 발생하므로 SendTrace 를 동기화 없이 쓴다.
+ */
+public final class TraceEventListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = call -> {
+        SendTrace trace = call.request().tag(SendTrace.class);
+        return trace != null ? new TraceEventListener(trace) : EventListener.NONE;
+    };
+
+    private final SendTrace trace;
+
+    private TraceEventListener(SendTrace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        trace.begin(SendTrace.Stage.ACQUIRE);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        trace.newConnection();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        trace.begin(SendTrace.Stage.SERVER);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        trace.end(SendTrace.Stage.SERVER);
+    }
+}
@@ -0,0 +1,123 @@
+package kr.tx24.naverworks.callback;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Callback 이벤트 분배
+ * - type 별 핸들러 목록 ("*" 는 모든 이벤트)
+ * - 고정 크기 스레드 + 유한 큐 (큐가 가득 차면 false 반환 -> 503 응답)
+ */
+public class CallbackDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallbackDispatcher.class);
+    public static final String ALL = "*";
+
+    private final Map<String, List<CallbackHandler>> handlers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong rejected 	= new AtomicLong();
+    private final AtomicLong failed 	= new AtomicLong();
+
+    public CallbackDispatcher(int workers, int queueSize) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "callback-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 핸들러 등록
+     */
+    public void register(String type, CallbackHandler handler) {
+        handlers.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(handler);
+        logger.info("Callback handler registered: type={}, handler={}", type, handler.getClass().getName());
+    }
+
+    /**
+     * type 또는 "*" 핸들러가 등록되어 있는지
+     */
+    public boolean hasHandler(String type) {
+        return handlers.containsKey(type) || handlers.containsKey(ALL);
+    }
+
+    /**
+     * 이벤트 분배 (비동기)
+     * @return 큐에 적재되었으면 true
+     */
+    public boolean dispatch(CallbackEvent event) {
+        List<CallbackHandler> typed = handlers.get(event.type());
+        List<CallbackHandler> all 	= handlers.get(ALL);
+        if (typed == null && all == null) {
+            logger.debug("No callback handler: {}", event);
+            return true;
+        }
+
+        try {
+            executor.execute(() -> {
+                invoke(typed, event);
+                invoke(all, event);
+            });
+            dispatched.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            logger.warn("Callback queue is full, rejected: {}", event);
+            return false;
+        }
+    }
+
+    private void invoke(List<CallbackHandler> list, CallbackEvent event) {
+        if (list == null) {
+            return;
+        }
+        for (CallbackHandler handler : list) {
+            try {
+                handler.handle(event);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.warn("Callback handler failed: {}, {}", handler.getClass().getName(), event, e);
+            }
+        }
+    }
+
+    /**
+     * 종료 (남은 이벤트는 timeout 까지 처리)
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Callback dispatcher not terminated, remaining={}", executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    public String getStatus() {
+        return String.format("Callback Dispatcher - active: %d, queued: %d, dispatched: %d, rejected: %d, failed: %d",
+                executor.getActiveCount(), executor.getQueue().size(), dispatched.get(), rejected.get(), failed.get());
+    }
+}
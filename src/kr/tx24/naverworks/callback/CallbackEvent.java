@@ -0,0 +1,173 @@
+package kr.tx24.naverworks.callback;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Bot Callback 이벤트
+ * 
+{
+    "type": "message",
+    "source": {
+        "userId": "...",
+        "channelId": "...",
+        "domainId": 10000001
+    },
+    "issuedTime": "2025-11-01T09:00:00.000Z",
+    "content": {
+        "type": "text",
+        "text": "문의",
+        "postback": "inquiry"
+    }
+}
+ */
+public class CallbackEvent {
+
+    private String botId;
+    private String type;
+    private String userId;
+    private String channelId;
+    private String domainId;
+    private String issuedTime;
+    private String contentType;
+    private String text;
+    private String postback;
+
+    /**
+     * X-WORKS-BotId 헤더 (수신한 bot)
+     */
+    public String botId() {
+        return this.botId;
+    }
+
+    CallbackEvent botId(String botId) {
+        this.botId = botId;
+        return this;
+    }
+
+    public String type() {
+        return this.type;
+    }
+
+    public String userId() {
+        return this.userId;
+    }
+
+    public String channelId() {
+        return this.channelId;
+    }
+
+    public String domainId() {
+        return this.domainId;
+    }
+
+    public String issuedTime() {
+        return this.issuedTime;
+    }
+
+    public String contentType() {
+        return this.contentType;
+    }
+
+    public String text() {
+        return this.text;
+    }
+
+    public String postback() {
+        return this.postback;
+    }
+
+    /**
+     * 스트리밍 파싱 (필요한 필드만 읽고 나머지는 건너뜀)
+     */
+    public static CallbackEvent parse(JsonFactory factory, InputStream in) throws IOException {
+        CallbackEvent event = new CallbackEvent();
+        try (JsonParser parser = factory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid callback body");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "type":
+                        event.type = parser.getValueAsString();
+                        break;
+                    case "issuedTime":
+                        event.issuedTime = parser.getValueAsString();
+                        break;
+                    case "source":
+                        if (token == JsonToken.START_OBJECT) {
+                            readSource(parser, event);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        break;
+                    case "content":
+                        if (token == JsonToken.START_OBJECT) {
+                            readContent(parser, event);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        if (event.type == null) {
+            throw new IOException("Callback type is empty");
+        }
+        return event;
+    }
+
+    private static void readSource(JsonParser parser, CallbackEvent event) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "userId":
+                    event.userId = parser.getValueAsString();
+                    break;
+                case "channelId":
+                    event.channelId = parser.getValueAsString();
+                    break;
+                case "domainId":
+                    event.domainId = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readContent(JsonParser parser, CallbackEvent event) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "type":
+                    event.contentType = parser.getValueAsString();
+                    break;
+                case "text":
+                    event.text = parser.getValueAsString();
+                    break;
+                case "postback":
+                    event.postback = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CallbackEvent[botId=" + botId + ", type=" + type + ", userId=" + userId + ", channelId=" + channelId
+                + ", contentType=" + contentType + ", postback=" + postback + "]";
+    }
+}
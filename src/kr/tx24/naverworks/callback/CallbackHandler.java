@@ -0,0 +1,11 @@
+package kr.tx24.naverworks.callback;
+
+/**
+ * Callback 이벤트 처리기
+ * CallbackServer.register(type, handler) 로 등록하며, dispatcher 스레드에서 호출된다.
+ */
+@FunctionalInterface
+public interface CallbackHandler {
+
+    void handle(CallbackEvent event) throws Exception;
+}
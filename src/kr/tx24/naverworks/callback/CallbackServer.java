@@ -0,0 +1,251 @@
+package kr.tx24.naverworks.callback;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.lifecycle.SystemManager;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.service.TenantRegistry;
+
+/**
+ * NAVER WORKS Bot Callback 수신 서버 (HTTP)
+ * 
+ * inet.json
+ * "callback": {
+ *     "enabled": true,
+ *     "host": "0.0.0.0",
+ *     "port": 10011,
+ *     "path": "/callback",
+ *     "botSecret": "...",
+ *     "workers": 8,
+ *     "queueSize": 10000,
+ *     "maxContentLength": 65536,
+ *     "logEvents": true
+ * }
+ * 
+ * - 서명 검증 후 이벤트를 dispatcher 큐에 넣고 즉시 200 응답 (플랫폼 callback timeout 이내)
+ * - secret 은 X-WORKS-BotId 로 찾는다. tenants 의 bot.botSecret, 없으면 botSecret (default tenant)
+ * - logEvents 가 true 이면 모든 이벤트를 기록하는 기본 핸들러("*")를 등록한다.
+ * - 서명 불일치 401, 파싱 실패 400, 처리할 핸들러 없음 501, 큐 포화 503
+ */
+public class CallbackServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallbackServer.class);
+    private static final String SIGNATURE_HEADER = "X-WORKS-Signature";
+    private static final String BOT_ID_HEADER 	 = "X-WORKS-BotId";
+
+    private static final AtomicBoolean isStarted = new AtomicBoolean(false);
+    private static volatile CallbackDispatcher dispatcher;
+    private static volatile EventLoopGroup bossGroup;
+    private static volatile EventLoopGroup workerGroup;
+
+    private CallbackServer() {
+    }
+
+    /**
+     * callback 설정이 enabled 이면 서버 시작 (non-blocking)
+     */
+    public static void start() throws Exception {
+        LinkedMap<String,Object> callbackMap = INetConfigLoader.getMap("callback", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        if (callbackMap == null || !callbackMap.isTrue("enabled")) {
+            logger.info("CallbackServer disabled");
+            return;
+        }
+        if (!isStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        String path 			= callbackMap.getString("path", "/callback");
+        JsonFactory factory 	= new JacksonUtils().getMapper().getFactory();
+        int maxContentLength 	= callbackMap.getInt("maxContentLength", 64 * 1024);
+
+        getDispatcher(callbackMap);
+        if (callbackMap.isTrue("logEvents")) {
+            dispatcher.register(CallbackDispatcher.ALL, event -> logger.info("Callback received: {}", event));
+        }
+
+        bossGroup 	= new MultiThreadIoEventLoopGroup(1, NioIoHandler.newFactory());
+        workerGroup = new MultiThreadIoEventLoopGroup(NioIoHandler.newFactory());
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.SO_KEEPALIVE, true)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                            .addLast(new HttpServerCodec())
+                            .addLast(new HttpObjectAggregator(maxContentLength))
+                            .addLast(new CallbackRequestHandler(path, factory, dispatcher));
+                    }
+                });
+
+        String host = callbackMap.getString("host", "0.0.0.0");
+        int port 	= callbackMap.getInt("port", 10011);
+        Channel channel = bootstrap.bind(host, port).sync().channel();
+
+        SystemManager.registerShutdownHook(() -> CallbackServer.shutdown());
+        logger.info("CallbackServer started ... : [{}:{}{}], {}", host, port, path, channel);
+    }
+
+    /**
+     * 핸들러 등록 (서버 시작 전/후 모두 가능)
+     */
+    public static void register(String type, CallbackHandler handler) {
+        getDispatcher(INetConfigLoader.getMap("callback", TypeRegistry.MAP_LINKEDMAP_OBJECT)).register(type, handler);
+    }
+
+    private static CallbackDispatcher getDispatcher(LinkedMap<String,Object> callbackMap) {
+        if (dispatcher == null) {
+            synchronized (CallbackServer.class) {
+                if (dispatcher == null) {
+                    LinkedMap<String,Object> conf = callbackMap != null ? callbackMap : new LinkedMap<>();
+                    dispatcher = new CallbackDispatcher(
+                            conf.getInt("workers", Runtime.getRuntime().availableProcessors() * 2),
+                            conf.getInt("queueSize", 10000));
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    /**
+     * 종료 : 수신 중단 후 남은 이벤트 처리
+     */
+    public static void shutdown() {
+        shutdown(5000);
+    }
+
+    /**
+     * 종료 : 남은 이벤트는 timeout 까지 처리
+     */
+    public static void shutdown(long timeoutMillis) {
+        if (!isStarted.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            bossGroup.shutdownGracefully(0, 3, TimeUnit.SECONDS).sync();
+            workerGroup.shutdownGracefully(0, 3, TimeUnit.SECONDS).sync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dispatcher.shutdown(timeoutMillis);
+        logger.info("CallbackServer stopped, {}", dispatcher.getStatus());
+    }
+
+    public static String getStatus() {
+        return dispatcher != null ? dispatcher.getStatus() : "Callback Dispatcher - not started";
+    }
+
+    /**
+     * HTTP 요청 처리
+     */
+    private static class CallbackRequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+        // secret -> verifier (Mac 초기화는 secret 별로 한 번, reload 로 바뀐 secret 은 새로 생성)
+        private static final ConcurrentHashMap<String, SignatureVerifier> verifiers = new ConcurrentHashMap<>();
+
+        private final String path;
+        private final JsonFactory factory;
+        private final CallbackDispatcher dispatcher;
+
+        CallbackRequestHandler(String path, JsonFactory factory, CallbackDispatcher dispatcher) {
+            this.path 		= path;
+            this.factory 	= factory;
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+            if (!request.uri().startsWith(path)) {
+                respond(ctx, request, HttpResponseStatus.NOT_FOUND);
+                return;
+            }
+            if (!HttpMethod.POST.equals(request.method())) {
+                respond(ctx, request, HttpResponseStatus.METHOD_NOT_ALLOWED);
+                return;
+            }
+
+            String botId 	 = request.headers().get(BOT_ID_HEADER);
+            String secret 	 = TenantRegistry.botSecret(botId);
+            String signature = request.headers().get(SIGNATURE_HEADER);
+            if (secret == null || !verifiers.computeIfAbsent(secret, SignatureVerifier::new).verify(request.content().nioBuffer(), signature)) {
+                logger.warn("Callback signature mismatch from {}, botId={}", ctx.channel().remoteAddress(), botId);
+                respond(ctx, request, HttpResponseStatus.UNAUTHORIZED);
+                return;
+            }
+
+            CallbackEvent event;
+            try {
+                event = CallbackEvent.parse(factory, new ByteBufInputStream(request.content())).botId(botId);
+            } catch (Exception e) {
+                logger.warn("Callback parse failed: {}", e.getMessage());
+                respond(ctx, request, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+
+            if (!dispatcher.hasHandler(event.type())) {
+                logger.warn("No callback handler, not acknowledged: {}", event);
+                respond(ctx, request, HttpResponseStatus.NOT_IMPLEMENTED);
+                return;
+            }
+            respond(ctx, request, dispatcher.dispatch(event)
+                    ? HttpResponseStatus.OK
+                    : HttpResponseStatus.SERVICE_UNAVAILABLE);
+        }
+
+        private void respond(ChannelHandlerContext ctx, FullHttpRequest request, HttpResponseStatus status) {
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+
+            if (HttpUtil.isKeepAlive(request)) {
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+                ctx.writeAndFlush(response);
+            } else {
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.warn("Callback channel exception: {}", cause.getMessage());
+            ctx.close();
+        }
+    }
+}
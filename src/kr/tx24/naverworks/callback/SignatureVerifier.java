@@ -0,0 +1,53 @@
+package kr.tx24.naverworks.callback;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * X-WORKS-Signature 검증 (HMAC-SHA256, Base64)
+ * - Mac 은 스레드별로 한 번만 생성/초기화하고 doFinal 후 재사용한다. (요청마다 key 설정 없음)
+ */
+public class SignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+
+    public SignatureVerifier(String botSecret) {
+        SecretKeySpec key = new SecretKeySpec(botSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (Exception e) {
+                throw new IllegalStateException("HMAC 초기화 실패", e);
+            }
+        });
+    }
+
+    /**
+     * body 의 서명 일치 여부
+     */
+    public boolean verify(ByteBuffer body, String signature) {
+        if (signature == null || signature.isEmpty()) {
+            return false;
+        }
+
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        Mac mac = macs.get();
+        mac.update(body);
+        return MessageDigest.isEqual(mac.doFinal(), expected);
+    }
+}
@@ -0,0 +1,170 @@
+package kr.tx24.naverworks.conf;
+
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import kr.tx24.inet.conf.INetConfigLoader;
+import kr.tx24.lib.lang.SystemUtils;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.SharedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.service.TenantRegistry;
+
+/**
+ * inet.json 변경 감지 후 재적용 (재기동 없음)
+ * 
+"reload": {
+    "enabled": true,
+    "debounceMillis": 500,
+    "retryMillis": 30000
+}
+ * 
+ * - 에디터가 여러 번 나눠 쓰는 경우를 위해 마지막 이벤트 이후 debounceMillis 만큼 기다린 뒤 읽는다.
+ * - 내용(SHA-256)이 바뀌지 않았거나 JSON 이 올바르지 않으면 반영하지 않는다.
+ * - 일부 tenant 반영에 실패하면 파일이 다시 바뀌지 않아도 retryMillis 마다 다시 반영한다. (모두 성공해야 반영 완료)
+ * - 설정이 바뀐 tenant 만 다시 생성하며, 전송 제한 사용량과 첨부파일 / 사용자 조회 캐시는 유지된다.
+ * - 반영 대상 : tenants (oauth, api, bot, limit, attachment, directory). host/port/callback 은 재기동 필요.
+ */
+public class ConfigWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigWatcher.class);
+    private static final AtomicBoolean isStarted = new AtomicBoolean(false);
+
+    private final Path configPath;
+    private final long debounceMillis;
+    private final long retryMillis;
+    private final JacksonUtils json = new JacksonUtils();
+    private byte[] lastDigest;
+    // 마지막 반영이 일부 실패하여 재시도가 필요한지
+    private boolean pending;
+
+    private ConfigWatcher(Path configPath, long debounceMillis, long retryMillis) throws Exception {
+        this.configPath 	= configPath.toAbsolutePath();
+        this.debounceMillis = debounceMillis;
+        this.retryMillis 	= Math.max(1000, retryMillis);
+        this.lastDigest 	= digest(Files.readAllBytes(this.configPath));
+    }
+
+    /**
+     * reload 설정이 enabled 이면 감시 스레드 시작
+     */
+    public static void start() {
+        LinkedMap<String,Object> reloadMap = INetConfigLoader.getMap("reload", TypeRegistry.MAP_LINKEDMAP_OBJECT);
+        if (reloadMap == null || !reloadMap.isTrue("enabled")) {
+            logger.info("ConfigWatcher disabled");
+            return;
+        }
+        if (!isStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ConfigWatcher watcher = new ConfigWatcher(SystemUtils.getINetConfigPath(),
+                    reloadMap.getLong("debounceMillis", 500), reloadMap.getLong("retryMillis", 30000));
+            Thread thread = new Thread(watcher::watch, "config-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            logger.info("ConfigWatcher started: {}", watcher.configPath);
+        } catch (Exception e) {
+            isStarted.set(false);
+            logger.error("Failed to start ConfigWatcher", e);
+        }
+    }
+
+    private void watch() {
+        Path dir = configPath.getParent();
+        Path name = configPath.getFileName();
+
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            dir.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (true) {
+                // 재시도 대기 중이면 retryMillis 까지만 기다린 뒤 다시 반영
+                WatchKey key = pending ? service.poll(retryMillis, TimeUnit.MILLISECONDS) : service.take();
+                boolean changed = key == null || hasChange(key, name);
+
+                // debounce : 이어지는 이벤트가 없을 때까지 대기
+                while (changed) {
+                    WatchKey next = service.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    hasChange(next, name);
+                }
+
+                if (changed) {
+                    apply();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("ConfigWatcher stopped", e);
+        }
+    }
+
+    private boolean hasChange(WatchKey key, Path name) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (name.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * 변경 내용 반영
+     */
+    private void apply() {
+        try {
+            byte[] bytes = Files.readAllBytes(configPath);
+            byte[] current = digest(bytes);
+            if (!pending && Arrays.equals(current, lastDigest)) {
+                logger.debug("Config unchanged: {}", configPath);
+                return;
+            }
+
+            SharedMap<String,Object> config = json.fromJson(bytes, TypeRegistry.MAP_SHAREDMAP_OBJECT);
+            if (config == null || config.isEmpty()) {
+                logger.warn("Config is empty, ignored: {}", configPath);
+                return;
+            }
+
+            long started = System.currentTimeMillis();
+            if (!TenantRegistry.reload(config)) {
+                // 실패한 tenant 는 retryMillis 후 다시 시도 (lastDigest 는 그대로)
+                pending = true;
+                logger.warn("Config partially reloaded, retry in {}ms: {}", retryMillis, configPath);
+                return;
+            }
+            pending = false;
+            lastDigest = current;
+            logger.info("Config reloaded: {}, elapsed={}ms", configPath, System.currentTimeMillis() - started);
+
+        } catch (Exception e) {
+            logger.error("Config reload failed, keep previous: {}", configPath, e);
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(bytes);
+    }
+}
@@ -1,23 +1,65 @@
 package kr.tx24.naverworks.ctl;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.channel.ChannelHandlerContext;
-import kr.tx24.inet.mapper.Autowired;
+import kr.tx24.inet.conf.INetConfigLoader;
 import kr.tx24.inet.mapper.Controller;
 import kr.tx24.inet.mapper.Route;
 import kr.tx24.lib.inter.INet;
-import kr.tx24.lib.lang.CommonUtils;
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.lib.map.TypeRegistry;
+import kr.tx24.naverworks.Warmup;
+import kr.tx24.naverworks.bot.BotException;
 import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.BotResult;
+import kr.tx24.naverworks.bot.Deadline;
+import kr.tx24.naverworks.bot.schedule.MessageScheduler;
+import kr.tx24.naverworks.bot.schedule.ScheduledMessage;
 import kr.tx24.naverworks.bot.service.BotService;
+import kr.tx24.naverworks.bot.service.ContentSplitter;
+import kr.tx24.naverworks.bot.service.OrderedDispatcher;
+import kr.tx24.naverworks.bot.service.SendGate;
+import kr.tx24.naverworks.bot.service.TenantRegistry;
+import kr.tx24.naverworks.bot.service.UserDirectory;
+import kr.tx24.naverworks.bot.status.DeliveryRecord;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+import kr.tx24.naverworks.bot.trace.SlowSendRecorder;
 
 
 /**
  * 
+// ===== 0. 공통 =====
+//  tenant : inet.json tenants 의 이름 (없으면 default)
+//  botId  : 없으면 tenant 의 bot.botId
+//  수신 대상 : channelId 대신 userId, email, employeeNo(사번, externalKey) 로 사용자에게 직접 전송 가능
+//             (email / employeeNo 는 userId 로 조회 후 캐시, directory 설정)
+//             (email / employeeNo 는 Directory API 를 쓰므로 oauth.scope 에 user.read 필요)
+
+//  sendAt : 예약 전송 시각 (epoch millis 또는 "yyyy-MM-dd HH:mm:ss"), delayMs : 지연 전송 (ms)
+//           -> resultCd "SCHEDULED", scheduleId 반환. 취소는 /bot/cancel { "scheduleId": "..." }
+//  async  : true 이면 전송 결과를 기다리지 않고 "QUEUED" 반환 (같은 channel 은 항상 요청 순서대로 전송)
+//  text / list_template 이 API 제한(split 설정)을 넘으면 나누어 순서대로 전송하고 parts, deliveryIds 를 함께 반환
+//  head 의 deadline(epoch millis) 또는 timeoutMs : 호출자가 기다리는 한도. lane 대기, 토큰 조회, HTTP 호출까지 적용되며
+//           지난 메시지는 전송하지 않고 resultCd "DEADLINE_EXCEEDED" (상태 EXPIRED). 예약 전송에는 적용하지 않는다.
+//  응답의 deliveryId 로 전송 상태 조회 : /bot/status { "deliveryId": "..." } 또는 { "channelId": "...", "limit": 20 }
+//  분당 가장 느린 전송(trace 설정)의 단계별 시간 : /bot/slow (correlationId 는 deliveryId 이며 JFR 이벤트와 같다)
+
 // ===== 1. 텍스트 메시지 =====
 {
     "botId": "bot123",
@@ -83,6 +125,14 @@ import kr.tx24.naverworks.bot.service.BotService;
     "fileName": "문서.pdf"
 }
 
+// ===== 5-1. 로컬 파일 업로드 메시지 (image 는 imagePath, attachment.baseDir 기준 경로만 허용) =====
+{
+    "botId": "bot123",
+    "channelId": "channel456",
+    "type": "file",
+    "filePath": "report/2025-11.pdf"
+}
+
 // ===== 6. Flex 메시지 =====
 {
     "botId": "bot123",
@@ -117,186 +167,354 @@ import kr.tx24.naverworks.bot.service.BotService;
 public class BotCtl {
 
 	private static final Logger logger = LoggerFactory.getLogger(BotCtl.class);
+	private static final ContentSplitter splitter = ContentSplitter.of(INetConfigLoader.getMap("split", TypeRegistry.MAP_LINKEDMAP_OBJECT));
 	
-	private final ChannelHandlerContext ctx;
-    private final INet inet;
-    private final BotService botService;
-    private final INet resInet;
-    
-    
-    @Autowired
-    public BotCtl(ChannelHandlerContext ctx, INet inet) {
-    	this.ctx = ctx;
-    	this.inet = inet;
-    	
-    	// 싱글톤 인스턴스 사용
-        BotService svc = null;
-        try {
-            svc = BotService.getInstance();  // ✅ 싱글톤 인스턴스 가져오기
-        } catch(Exception e) {
-            logger.error("Failed to get Bot Service instance: {}", CommonUtils.getExceptionMessage(e));
-        }
-        this.botService = svc;
-    	this.resInet 	= new INet()
-		        .head("result"  , true)
-		        .head("message" , "successful");
-    }
-    
-    
-    @SuppressWarnings("unchecked")
-	@Route(target = {"/send"}, loggable = true)
-    public INet send() {
-    	
-    	
+	/*
+	 * 상태 없는 컨트롤러 : 요청(INet)과 context 는 route 메서드 파라미터로 받는다.
+	 * inet 의 RouteInvoker 는 요청마다 createController 로 인스턴스를 새로 만든다. (싱글톤 인스턴스를 등록하는 API 없음)
+	 * 그래서 인스턴스 필드와 생성자 작업을 두지 않고(빈 객체 1개 생성 비용만 남음), 공유할 것은 모두 static 으로 둔다.
+	 * 자주 쓰는 응답은 미리 만들어 공유한다. (INetHandler 는 반환된 INet 의 head/data 를 복사만 하므로 공유 가능)
+	 */
+	private static final INet SHUTTING_DOWN = envelope("SHUTTING_DOWN", "Server is shutting down");
+	private static final INet DEADLINE_EXCEEDED = envelope(Deadline.EXCEEDED, "Deadline exceeded before processing");
+	private static final Map<String, INet> INVALID = new ConcurrentHashMap<>();
+	private static final DateTimeFormatter SEND_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+	
+	
+	@SuppressWarnings("unchecked")
+	@Route(target = {"/send"}, loggable = false)
+    public INet send(ChannelHandlerContext ctx, INet inet) {
     	
-    	if(inet.data().isEmpty("botId")) {
-    		this.resInet
-    			.data("resultCd", "INVALID_PARAMETER")
-    			.data("resultMsg", "botId is empty");
+    	if(!SendGate.isAccepting()) {
+    		return SHUTTING_DOWN;
     	}
     	
-    	
-    	
-    	if(inet.data().isEmpty("channelId")) {
-    		this.resInet
-    			.data("resultCd", "INVALID_PARAMETER")
-    			.data("resultMsg", "channelId is empty");
+    	// 호출자 deadline (head 의 deadline / timeoutMs) : 이미 지났으면 아무 작업도 하지 않는다.
+    	long deadline = Deadline.of(inet.head());
+    	if(Deadline.isExpired(deadline)) {
+    		return DEADLINE_EXCEEDED;
     	}
     	
+    	INet.INMap data = inet.data();
     	
-    	if(inet.data().isEmpty("type")) {
-    		this.resInet
-    			.data("resultCd", "INVALID_PARAMETER")
-    			.data("resultMsg", "type is empty");
+    	// 수신 대상 : channelId 또는 userId / email / employeeNo 중 하나
+    	if(data.isEmpty("channelId") && data.isEmpty("userId") && data.isEmpty("email") && data.isEmpty("employeeNo")) {
+    		return invalid("channelId");
     	}
     	
+    	if(data.isEmpty("type")) {
+    		return invalid("type");
+    	}
     	
+    	long deliveryId = 0;
     	try {
+    		
+    		// tenant 선택 (없으면 default), botId 가 없으면 tenant 의 기본 botId
+    		BotService botService = TenantRegistry.get(data.getString("tenant"));
     	
 	    	BotMessage message = new BotMessage()
-	    			.botId(inet.data().getString("botId"))
-	    			.channelId(inet.data().getString("channelId"));
+	    			.botId(data.isEmpty("botId") ? botService.defaultBotId() : data.getString("botId"));
+	    	
+	    	if(!data.isEmpty("channelId")) {
+	    		message.channelId(data.getString("channelId"));
+	    	}else if(!data.isEmpty("userId")) {
+	    		message.userId(data.getString("userId"));
+	    	}else if(!data.isEmpty("email")) {
+	    		message.userId(botService.resolveUserId(UserDirectory.EMAIL, data.getString("email")));
+	    	}else {
+	    		message.userId(botService.resolveUserId(UserDirectory.EMPLOYEE_NO, data.getString("employeeNo")));
+	    	}
 	    	
-	    	String type = inet.data().getString("type");
+	    	String type = data.getString("type");
 	    	
 	    	// type에 따른 메시지 content 설정
 	        switch(type) {
 	            case "text":
 	                // 텍스트 메시지
-	                if(inet.data().isEmpty("text")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "text is empty");
+	                if(data.isEmpty("text")) {
+	                    return invalid("text");
 	                }
-	                message.text(inet.data().getString("text"));
+	                message.text(data.getString("text"));
 	                break;
 	
 	            case "button_template":
 	                // 버튼 템플릿 메시지
-	                if(inet.data().isEmpty("contentText")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "contentText is empty");
+	                if(data.isEmpty("contentText")) {
+	                    return invalid("contentText");
 	                }
-	                if(inet.data().isEmpty("buttons")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "buttons is empty");
+	                if(data.isEmpty("buttons")) {
+	                    return invalid("buttons");
 	                }
 	                message.buttonTemplate(
-	                    inet.data().getString("contentText"),
-	                    (List<Map<String, Object>>)inet.data().get("buttons")
+	                    data.getString("contentText"),
+	                    (List<Map<String, Object>>)data.get("buttons")
 	                );
 	                break;
 	
 	            case "list_template":
 	                // 리스트 템플릿 메시지
-	                if(inet.data().isEmpty("coverText")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "coverText is empty");
+	                if(data.isEmpty("coverText")) {
+	                    return invalid("coverText");
 	                }
-	                if(inet.data().isEmpty("elements")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "elements is empty");
+	                if(data.isEmpty("elements")) {
+	                    return invalid("elements");
 	                }
 	                message.listTemplate(
-	                    inet.data().getString("coverText"),
-	                    (List<Map<String, Object>>)inet.data().get("elements")
+	                    data.getString("coverText"),
+	                    (List<Map<String, Object>>)data.get("elements")
 	                );
 	                break;
 	
 	            case "image":
-	                // 이미지 메시지
-	                if(inet.data().isEmpty("imageUrl")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "imageUrl is empty");
+	                // 이미지 메시지 (imagePath : 서버 로컬 파일을 업로드 후 전송)
+	                if(!data.isEmpty("imagePath")) {
+	                    message.imageFileId(botService.uploadAttachment(
+	                        message.botId(), Path.of(data.getString("imagePath")), deadline));
+	                    break;
 	                }
-	                message.image(inet.data().getString("imageUrl"));
+	                if(data.isEmpty("imageUrl")) {
+	                    return invalid("imageUrl");
+	                }
+	                message.image(data.getString("imageUrl"));
 	                break;
 	
 	            case "file":
-	                // 파일 메시지
-	                if(inet.data().isEmpty("fileUrl")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "fileUrl is empty");
+	                // 파일 메시지 (filePath : 서버 로컬 파일을 업로드 후 전송)
+	                if(!data.isEmpty("filePath")) {
+	                    message.fileId(botService.uploadAttachment(
+	                        message.botId(), Path.of(data.getString("filePath")), deadline));
+	                    break;
+	                }
+	                if(data.isEmpty("fileUrl")) {
+	                    return invalid("fileUrl");
 	                }
-	                if(inet.data().isEmpty("fileName")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "fileName is empty");
+	                if(data.isEmpty("fileName")) {
+	                    return invalid("fileName");
 	                }
 	                message.file(
-	                    inet.data().getString("fileUrl"),
-	                    inet.data().getString("fileName")
+	                    data.getString("fileUrl"),
+	                    data.getString("fileName")
 	                );
 	                break;
 	
 	            case "flex":
 	                // Flex 메시지
-	                if(inet.data().isEmpty("altText")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "altText is empty");
+	                if(data.isEmpty("altText")) {
+	                    return invalid("altText");
 	                }
-	                if(inet.data().isEmpty("contents")) {
-	                    return this.resInet
-	                        .data("resultCd", "INVALID_PARAMETER")
-	                        .data("resultMsg", "contents is empty");
+	                if(data.isEmpty("contents")) {
+	                    return invalid("contents");
 	                }
 	                message.flex(
-	                    inet.data().getString("altText"),
-	                    (Map<String, Object>)inet.data().get("contents")
+	                    data.getString("altText"),
+	                    (Map<String, Object>)data.get("contents")
 	                );
 	                break;
 	
 	            default:
-	                return this.resInet
-	                    .data("resultCd", "INVALID_PARAMETER")
-	                    .data("resultMsg", "Invalid type: " + type);
+	                return envelope("INVALID_PARAMETER", "Invalid type: " + type);
 	        }
 	    	
 	    	
 	        
-	        this.botService.sendMessage(message);
-	
+	        // 예약/지연 전송 (sendAt 또는 delayMs 가 미래이면 scheduler 로 넘김)
+	        long sendAt = sendAt(data);
+	        if (sendAt > System.currentTimeMillis()) {
+	        	ScheduledMessage scheduled = MessageScheduler.getInstance().schedule(botService.tenant(), message, sendAt);
+	        	return envelope("SCHEDULED", "Message scheduled")
+	        			.data("scheduleId", scheduled.getId())
+	        			.data("deliveryId", Long.toString(scheduled.getDeliveryId()))
+	        			.data("sendAt", sendAt);
+	        }
+	    	
+	        // 즉시 전송만 deadline 을 적용 (사용자 조회 / 업로드로 이미 지났으면 등록하지 않음)
+	        Deadline.check(deadline, "before queueing");
+	        message.deadline(deadline);
+	        
+	        // API 제한을 넘는 text/list 는 나누어 같은 lane 에서 이어서 전송
+	        List<BotMessage> parts = splitter.split(message);
+	        long[] deliveryIds = new long[parts.size()];
+	        for(int i = 0; i < deliveryIds.length; i++) {
+	        	deliveryIds[i] = DeliveryStore.get().enqueue(message.target(), DeliveryState.QUEUED);
+	        }
+	        deliveryId = deliveryIds[0];
+	        
+	        // channel 별 lane 으로 전송 (같은 channel 은 순서 보장)
+	        CompletableFuture<List<BotResult>> future;
+	        try {
+	        	future = OrderedDispatcher.get().submitAll(botService, parts, deliveryIds);
+	        }catch(BotException e) {
+	        	for(long id : deliveryIds) {
+	        		DeliveryStore.get().complete(id, DeliveryState.CANCELLED, 0);
+	        	}
+	        	throw e;
+	        }
+	        
+	        // async : 결과를 기다리지 않고 deliveryId 로 상태 조회
+	        if(data.isTrue("async")) {
+	        	return withParts(envelope("QUEUED", "Message queued"), deliveryIds);
+	        }
+	        
+	        // deadline 까지만 대기 (lane 에 남은 메시지는 꺼낼 때 EXPIRED 로 버려진다)
+	        List<BotResult> results;
+	        try {
+	        	results = deadline > 0 ? future.get(Deadline.remaining(deadline), TimeUnit.MILLISECONDS) : future.get();
+	        }catch(ExecutionException e) {
+	        	throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+	        }catch(TimeoutException e) {
+	        	throw Deadline.exceeded("waiting for send");
+	        }
+	        
+	        // 성공 경로는 BotService 의 샘플링 결과(첫 part)를 그대로 따른다. (오류 경로는 항상 기록)
+	        if (results.get(0).sampled()) {
+	        	logger.info("sent botId={}, target={}, type={}, parts={}, {}", message.botId(), message.target(), type, parts.size(), results);
+	        }
 		        
-            return this.resInet
-                .data("resultCd", "SUCCESS")
-                .data("resultMsg", "Message sent successfully");
+            return withParts(envelope("SUCCESS", "Message sent successfully"), deliveryIds);
 	        
+    	}catch(BotException e) {
+            logger.warn("Bot message rejected: {}, {}", e.resultCd(), data);
+            return withDelivery(envelope(e.resultCd(), e.getMessage()), deliveryId);
     	}catch(Exception e) {
-            logger.warn("Error sending bot message", e);
-            return this.resInet
-                .data("resultCd", "ERROR")
-                .data("resultMsg", "Error: " + e.getMessage());
+            logger.warn("Error sending bot message: {}", data, e);
+            return withDelivery(envelope("ERROR", "Error: " + e.getMessage()), deliveryId);
         }
         
     }
     
     
+    /**
+     * 예약 취소
+     */
+    @Route(target = {"/cancel"}, loggable = true)
+    public INet cancel(ChannelHandlerContext ctx, INet inet) {
+    	
+    	if(inet.data().isEmpty("scheduleId")) {
+    		return invalid("scheduleId");
+    	}
+    	
+    	try {
+    		boolean cancelled = MessageScheduler.getInstance().cancel(inet.data().getString("scheduleId"));
+    		return cancelled
+    				? envelope("SUCCESS", "Schedule cancelled")
+    				: envelope("NOT_FOUND", "Schedule not found or already sent");
+    	}catch(BotException e) {
+    		return envelope(e.resultCd(), e.getMessage());
+    	}
+    }
+    
+    
+    /**
+     * 전송 상태 조회
+     * - deliveryId : 단건
+     * - channelId  : 해당 channel 의 최근 전송 (limit, 기본 20 / 최대 100)
+     * - 둘 다 없으면 저장소 정보와 기동 warmup 결과
+     */
+    @Route(target = {"/status"}, loggable = false)
+    public INet status(ChannelHandlerContext ctx, INet inet) {
+    	
+    	INet.INMap data = inet.data();
+    	DeliveryStore store = DeliveryStore.get();
+    	
+    	if(!data.isEmpty("deliveryId")) {
+    		DeliveryRecord record = null;
+    		try {
+    			record = store.find(Long.parseLong(data.getString("deliveryId").trim()));
+    		}catch(NumberFormatException e) {
+    			// 형식이 다르면 NOT_FOUND
+    		}
+    		return record == null
+    				? envelope("NOT_FOUND", "Delivery not found or expired")
+    				: envelope("SUCCESS", "successful").data("record", record.toMap());
+    	}
+    	
+    	if(!data.isEmpty("channelId")) {
+    		int limit = (int) Math.min(100, Math.max(1, data.isEmpty("limit") ? 20 : data.getLong("limit")));
+    		List<LinkedMap<String,Object>> records = store.findByChannel(data.getString("channelId"), limit)
+    				.stream().map(DeliveryRecord::toMap).toList();
+    		return envelope("SUCCESS", "successful").data("records", records);
+    	}
+    	
+    	return envelope("SUCCESS", "successful")
+    			.data("store", store.getStatus())
+    			.data("warmup", Warmup.report());
+    }
+    
+    
+    /**
+     * 분당 가장 느린 전송 N 건의 단계별 시간 (최근 분부터)
+     */
+    @Route(target = {"/slow"}, loggable = false)
+    public INet slow(ChannelHandlerContext ctx, INet inet) {
+    	SlowSendRecorder recorder = SlowSendRecorder.get();
+    	return envelope("SUCCESS", "successful")
+    			.data("trace", recorder.getStatus())
+    			.data("minutes", recorder.dump());
+    }
+    
+    
+    /**
+     * 전송 시각 (epoch millis)
+     * - sendAt  : epoch millis 또는 "yyyy-MM-dd HH:mm:ss" (서버 timezone)
+     * - delayMs : 현재 시각 기준 지연 (ms)
+     * 둘 다 없으면 0 (즉시 전송)
+     */
+    private static long sendAt(INet.INMap data) throws BotException {
+    	if(!data.isEmpty("sendAt")) {
+    		String value = data.getString("sendAt").trim();
+    		try {
+    			if(value.chars().allMatch(Character::isDigit)) {
+    				return Long.parseLong(value);
+    			}
+    			return LocalDateTime.parse(value, SEND_AT_FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    		}catch(Exception e) {
+    			throw new BotException("INVALID_PARAMETER", "Invalid sendAt: " + value);
+    		}
+    	}
+    	if(!data.isEmpty("delayMs")) {
+    		return System.currentTimeMillis() + data.getLong("delayMs");
+    	}
+    	return 0;
+    }
+    
+    
+    /**
+     * 응답에 deliveryId 추가, 분할 전송이면 parts 와 전체 deliveryIds 도 추가
+     */
+    private static INet withParts(INet response, long[] deliveryIds) {
+    	withDelivery(response, deliveryIds[0]);
+    	if(deliveryIds.length > 1) {
+    		response.data("parts", deliveryIds.length)
+    				.data("deliveryIds", Arrays.stream(deliveryIds).mapToObj(Long::toString).toList());
+    	}
+    	return response;
+    }
+    
+    
+    /**
+     * 응답에 deliveryId 추가 (등록 전에 실패한 경우 제외)
+     */
+    private static INet withDelivery(INet response, long deliveryId) {
+    	return deliveryId == 0 ? response : response.data("deliveryId", Long.toString(deliveryId));
+    }
+    
+    
+    /**
+     * 필수 항목 누락 응답 (항목별로 한 번만 생성)
+     */
+    private static INet invalid(String field) {
+    	return INVALID.computeIfAbsent(field, f -> envelope("INVALID_PARAMETER", f + " is empty"));
+    }
+    
+    /**
+     * 응답 생성
+     */
+    static INet envelope(String resultCd, String resultMsg) {
+    	return new INet()
+		        .head("result"  , true)
+		        .head("message" , "successful")
+		        .data("resultCd", resultCd)
+		        .data("resultMsg", resultMsg);
+    }
     
 }
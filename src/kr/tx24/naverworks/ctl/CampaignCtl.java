@@ -0,0 +1,121 @@
+package kr.tx24.naverworks.ctl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelHandlerContext;
+import kr.tx24.inet.mapper.Controller;
+import kr.tx24.inet.mapper.Route;
+import kr.tx24.lib.inter.INet;
+import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.campaign.CampaignJob;
+import kr.tx24.naverworks.bot.campaign.CampaignManager;
+
+/**
+ * 대량 전송 (campaign)
+
+// ===== 시작 =====
+// /campaign/start
+{
+    "file": "2025-11/notice.csv",          // campaign.baseDir 기준 상대 경로 (csv 는 첫 행 header, jsonl 은 한 줄에 object 하나)
+    "format": "csv",                       // 선택 : csv | jsonl (없으면 확장자로 판단)
+    "tenant": "partner",                   // 선택
+    "botId": "bot_123",                    // 선택
+    "channelField": "channelId",           // 선택 : 수신 channelId 항목명
+    "concurrency": 8,                      // 선택 : 동시 전송 건수 (campaign.maxConcurrency 이하)
+    "ratePerSecond": 20,                   // 선택 : 초당 전송 건수, 소수 가능 (campaign.maxRatePerSecond 이하)
+    "content": {
+        "type": "text",
+        "text": "${name}님, ${month}월 정산 금액은 ${amount}원 입니다."
+    }
+}
+
+// ===== 조회 / 중단 =====
+// /campaign/status { "jobId": "..." }  (jobId 가 없으면 전체)
+// /campaign/stop   { "jobId": "..." }
+ */
+@Controller(target="/campaign")
+public class CampaignCtl {
+
+	private static final Logger logger = LoggerFactory.getLogger(CampaignCtl.class);
+	private static final JacksonUtils json = new JacksonUtils();
+	
+	
+	@SuppressWarnings("unchecked")
+	@Route(target = {"/start"}, loggable = true)
+    public INet start(ChannelHandlerContext ctx, INet inet) {
+    	
+    	INet.INMap data = inet.data();
+    	
+    	try {
+    		CampaignJob job = new CampaignJob();
+    		job.setFile(data.getString("file"));
+    		job.setFormat(data.getString("format"));
+    		job.setTenant(data.getString("tenant"));
+    		job.setBotId(data.isEmpty("botId") ? null : data.getString("botId"));
+    		if(!data.isEmpty("channelField")) {
+    			job.setChannelField(data.getString("channelField"));
+    		}
+    		job.setContent((Map<String, Object>) data.get("content"));
+    		job.setConcurrency(data.isEmpty("concurrency") ? 0 : (int) data.getLong("concurrency"));
+    		job.setRatePerSecond(data.isEmpty("ratePerSecond") ? 0 : data.getDouble("ratePerSecond"));
+    		
+    		String jobId = CampaignManager.getInstance().submit(job);
+    		return BotCtl.envelope("SUCCESS", "Campaign started").data("jobId", jobId);
+    		
+    	}catch(BotException e) {
+    		return BotCtl.envelope(e.resultCd(), e.getMessage());
+    	}catch(Exception e) {
+    		logger.warn("Error starting campaign: {}", data, e);
+    		return BotCtl.envelope("ERROR", "Error: " + e.getMessage());
+    	}
+    }
+	
+	
+	@Route(target = {"/status"}, loggable = false)
+    public INet status(ChannelHandlerContext ctx, INet inet) {
+    	
+    	try {
+    		CampaignManager manager = CampaignManager.getInstance();
+    		if(inet.data().isEmpty("jobId")) {
+    			return BotCtl.envelope("SUCCESS", "successful").data("jobs", manager.list().stream().map(CampaignCtl::toMap).toList());
+    		}
+    		CampaignJob job = manager.find(inet.data().getString("jobId"));
+    		return job == null
+    				? BotCtl.envelope("NOT_FOUND", "Campaign not found")
+    				: BotCtl.envelope("SUCCESS", "successful").data("job", toMap(job));
+    	}catch(BotException e) {
+    		return BotCtl.envelope(e.resultCd(), e.getMessage());
+    	}
+    }
+	
+	
+	/**
+	 * 응답용 Map 변환 (INet 은 Map/List 만 전달)
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> toMap(CampaignJob job) {
+		return json.getMapper().convertValue(job, LinkedHashMap.class);
+	}
+	
+	
+	@Route(target = {"/stop"}, loggable = true)
+    public INet stop(ChannelHandlerContext ctx, INet inet) {
+    	
+    	if(inet.data().isEmpty("jobId")) {
+    		return BotCtl.envelope("INVALID_PARAMETER", "jobId is empty");
+    	}
+    	
+    	try {
+    		return CampaignManager.getInstance().stop(inet.data().getString("jobId"))
+    				? BotCtl.envelope("SUCCESS", "Campaign stopped")
+    				: BotCtl.envelope("NOT_FOUND", "Campaign not found or not running");
+    	}catch(BotException e) {
+    		return BotCtl.envelope(e.resultCd(), e.getMessage());
+    	}
+    }
+}
@@ -1,18 +1,24 @@
 package kr.tx24.naverworks.oauth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import kr.tx24.inet.conf.INetConfigLoader;
 import kr.tx24.lib.executor.AsyncExecutor;
 import kr.tx24.lib.map.LinkedMap;
 import kr.tx24.lib.map.SharedMap;
 import kr.tx24.lib.map.TypeRegistry;
 import kr.tx24.lib.mapper.JacksonUtils;
+import kr.tx24.naverworks.bot.BotException;
+import kr.tx24.naverworks.bot.Deadline;
+import kr.tx24.naverworks.bot.trace.SendEvents.TokenRefreshEvent;
 import okhttp3.FormBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -25,22 +31,36 @@ public class TokenManager {
 	private final LinkedMap<String,Object> oauthMap;
     private final JwtBuilder jwtBuilder;
     private final OkHttpClient httpClient;
+    private final long refreshThreshold;
     
-    // 토큰 정보
-    private volatile String accessToken;
-    private volatile long tokenExpiresAt; // 만료 시간 (epoch millis)
+    // 토큰 정보 (값과 만료시간을 하나의 불변 객체로 교체 -> 조회는 volatile read 1회)
+    private volatile Token token;
     
-    // Thread-safe 제어
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+    // 진행 중인 갱신 (동시에 하나만, 호출자는 같은 future 를 기다린다)
+    private final AtomicReference<CompletableFuture<Token>> refreshing = new AtomicReference<>();
     private final AtomicBoolean isInitialized = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> autoRefreshFuture;
+    
+    /**
+     * 토큰 값 + 만료 시간 (epoch millis)
+     */
+    private record Token(String value, long expiresAt) {
+    }
     
     public TokenManager(LinkedMap<String,Object> oauthMap) throws Exception {
+        this(oauthMap, new OkHttpClient());
+    }
+    
+    /**
+     * 공유 OkHttpClient 의 커넥션 풀/Dispatcher 를 사용
+     */
+    public TokenManager(LinkedMap<String,Object> oauthMap, OkHttpClient baseClient) throws Exception {
         this.oauthMap 	= oauthMap;
         this.jwtBuilder = new JwtBuilder(oauthMap);
+        this.refreshThreshold = TimeUnit.MINUTES.toMillis(oauthMap.getLong("refreshBeforeExpireMinutes"));
         
         // OkHttpClient 생성
-        this.httpClient = new OkHttpClient.Builder()
+        this.httpClient = baseClient.newBuilder()
                 .connectTimeout(3000, TimeUnit.MILLISECONDS)
                 .readTimeout(10000, TimeUnit.MILLISECONDS)
                 .build();
@@ -59,7 +79,7 @@ public class TokenManager {
         }
         
         try {
-            requestNewToken();
+            this.token = requestNewToken();
             isInitialized.set(true);
             
             // 자동 갱신 스케줄링
@@ -68,7 +88,7 @@ public class TokenManager {
             }
             
             logger.info("TokenManager initialized successfully, token expires at: {}", 
-                    new java.util.Date(tokenExpiresAt));
+                    new java.util.Date(token.expiresAt()));
             
         } catch (Exception e) {
             logger.error("Failed to initialize TokenManager", e);
@@ -84,74 +104,122 @@ public class TokenManager {
             throw new IllegalStateException("TokenManager not initialized. Call initialize() first.");
         }
         
-        // Read lock으로 토큰 조회
-        lock.readLock().lock();
+        // 토큰이 유효한 경우 lock 없이 반환
+        Token current = this.token;
+        if (isTokenValid(current)) {
+            return current.value();
+        }
+        
+        // 토큰이 만료되었으면 갱신을 기다린다.
         try {
-            // 토큰이 유효한 경우
-            if (isTokenValid()) {
-                return accessToken;
-            }
-        } finally {
-            lock.readLock().unlock();
+            return refresh(false).get().value();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("토큰 갱신 대기 중단", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("토큰 갱신 실패", e.getCause());
+        }
+    }
+    
+    /**
+     * Access Token 조회 (갱신 대기는 deadline 까지만)
+     * 갱신 자체는 호출자의 deadline 과 무관하게 자체 timeout / 재시도로 끝까지 진행되어 다음 호출자가 사용한다.
+     * @param deadline epoch millis (0 이면 getAccessToken() 과 같다)
+     * @throws BotException DEADLINE_EXCEEDED
+     */
+    public String getAccessToken(long deadline) throws BotException {
+        if (deadline == 0) {
+            return getAccessToken();
+        }
+        if (!isInitialized.get()) {
+            throw new IllegalStateException("TokenManager not initialized. Call initialize() first.");
+        }
+        
+        Token current = this.token;
+        if (isTokenValid(current)) {
+            return current.value();
         }
         
-        // 토큰이 만료되었으면 갱신 시도
-        return refreshTokenIfNeeded();
+        CompletableFuture<Token> future = refresh(false);
+        try {
+            return future.get(Math.max(0, Deadline.remaining(deadline)), TimeUnit.MILLISECONDS).value();
+        } catch (TimeoutException e) {
+            throw Deadline.exceeded("token refresh");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Deadline.exceeded("token refresh");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("토큰 갱신 실패", e.getCause());
+        }
     }
     
     /**
      * 토큰 유효성 체크
      */
-    private boolean isTokenValid() {
-        if (accessToken == null) {
+    private boolean isTokenValid(Token current) {
+        if (current == null) {
             return false;
         }
         
-        long now = System.currentTimeMillis();
-        long refreshThreshold = TimeUnit.MINUTES.toMillis(oauthMap.getLong("refreshBeforeExpireMinutes"));
-        
         // 현재 시간이 (만료시간 - refreshThreshold) 보다 이전이면 유효
-        return now < (tokenExpiresAt - refreshThreshold);
+        return System.currentTimeMillis() < (current.expiresAt() - refreshThreshold);
     }
     
     /**
-     * 토큰 갱신 (필요시)
+     * 토큰 갱신 시작 (이미 진행 중이면 그 future 를 반환)
+     * 갱신은 AsyncExecutor 에서 실행되고, 끝나면(성공/실패) 다음 호출이 새로 시작한다.
+     * @param force 토큰이 유효해도 갱신
      */
-    private String refreshTokenIfNeeded() {
-        // 중복 갱신 방지
-        if (!isRefreshing.compareAndSet(false, true)) {
-            // 다른 스레드가 이미 갱신 중
-            waitForRefresh();
-            return accessToken;
-        }
-        
-        lock.writeLock().lock();
-        try {
-            // Double-check: 다시 한 번 유효성 확인
-            if (isTokenValid()) {
-                return accessToken;
+    private CompletableFuture<Token> refresh(boolean force) {
+        while (true) {
+            CompletableFuture<Token> running = refreshing.get();
+            if (running != null) {
+                return running;
             }
             
-            // 토큰 갱신
-            logger.info("Refreshing access token...");
-            requestNewToken();
-            logger.info("Access token refreshed successfully");
+            CompletableFuture<Token> created = new CompletableFuture<>();
+            if (!refreshing.compareAndSet(null, created)) {
+                continue;
+            }
             
-            return accessToken;
+            // Double-check: 다른 호출이 방금 갱신을 끝낸 경우
+            Token current = this.token;
+            if (!force && isTokenValid(current)) {
+                created.complete(current);
+                refreshing.compareAndSet(created, null);
+                return created;
+            }
             
-        } catch (Exception e) {
+            AsyncExecutor.execute(() -> runRefresh(created));
+            return created;
+        }
+    }
+    
+    private void runRefresh(CompletableFuture<Token> future) {
+        // 토큰 갱신 (JFR TokenRefresh 이벤트)
+        logger.info("Refreshing access token...");
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.clientId = oauthMap.getString("clientId");
+        event.begin();
+        try {
+            Token refreshed = requestNewToken();
+            this.token = refreshed;
+            event.success = true;
+            logger.info("Access token refreshed successfully");
+            future.complete(refreshed);
+        } catch (Throwable e) {
             logger.error("Failed to refresh token", e);
-            throw new RuntimeException("토큰 갱신 실패", e);
+            future.completeExceptionally(e);
         } finally {
-            isRefreshing.set(false);
-            lock.writeLock().unlock();
+            event.commit();
+            refreshing.compareAndSet(future, null);
         }
     }
     
     /**
-     * 새 토큰 요청
+     * 새 토큰 요청 (connect / read timeout 과 maxRetryCount 재시도는 토큰 요청 자체의 설정)
      */
-    private void requestNewToken() throws Exception {
+    private Token requestNewToken() throws Exception {
         // JWT 생성
         String jwt = jwtBuilder.buildJwt();
         
@@ -173,17 +241,15 @@ public class TokenManager {
         // 재시도 로직
         Exception lastException = null;
         for (int i = 0; i < oauthMap.getInt("maxRetryCount"); i++) {
-            try {
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (!response.isSuccessful()) {
-                        String errorBody = response.body() != null ? response.body().string() : "No body";
-                        throw new Exception("Token request failed: " + response.code() + ", body: " + errorBody);
-                    }
-                    
-                    String responseBody = response.body().string();
-                    parseTokenResponse(responseBody);
-                    return; // 성공
+            try (Response response = httpClient.newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    String errorBody = response.body() != null ? response.body().string() : "No body";
+                    throw new Exception("Token request failed: " + response.code() + ", body: " + errorBody);
                 }
+                
+                String responseBody = response.body().string();
+                return parseTokenResponse(responseBody); // 성공
+                
             } catch (Exception e) {
                 lastException = e;
                 logger.warn("Token request attempt {} failed: {}", i + 1, e.getMessage());
@@ -205,21 +271,23 @@ public class TokenManager {
     /**
      * 토큰 응답 파싱
      */
-    private void parseTokenResponse(String responseBody) {
+    private Token parseTokenResponse(String responseBody) {
         try {
         	
         	SharedMap<String,Object> map = new JacksonUtils().fromJson(responseBody, TypeRegistry.MAP_SHAREDMAP_OBJECT);
         	
-            this.accessToken 	= map.getString("access_token");
+            String accessToken 	= map.getString("access_token");
             int expiresIn 		= map.getInt("expires_in"); 
+            long expiresAt;
             if (expiresIn != 0) {
-                this.tokenExpiresAt = System.currentTimeMillis() + (expiresIn * 1000L);
+                expiresAt = System.currentTimeMillis() + (expiresIn * 1000L);
             } else {
                 // 기본 3600초 (1시간)
-                this.tokenExpiresAt = System.currentTimeMillis() + 3600000L;
+                expiresAt = System.currentTimeMillis() + 3600000L;
             }
             
             logger.debug("Token parsed: expires_in={} seconds", expiresIn);
+            return new Token(accessToken, expiresAt);
             
         } catch (Exception e) {
             logger.error("Failed to parse token response: {}", responseBody, e);
@@ -232,9 +300,9 @@ public class TokenManager {
      */
     private void scheduleAutoRefresh() {
         long initialDelay = calculateInitialDelay();
-        long period = TimeUnit.MINUTES.toMillis(oauthMap.getLong("refreshBeforeExpireMinutes"));
+        long period = refreshThreshold;
         
-        AsyncExecutor.scheduleAtFixedRate(
+        this.autoRefreshFuture = AsyncExecutor.scheduleAtFixedRate(
                 this::autoRefreshToken,
                 initialDelay,
                 period,
@@ -249,8 +317,7 @@ public class TokenManager {
      */
     private long calculateInitialDelay() {
         long now = System.currentTimeMillis();
-        long refreshThreshold = TimeUnit.MINUTES.toMillis(oauthMap.getLong("refreshBeforeExpireMinutes"));
-        long refreshTime = tokenExpiresAt - refreshThreshold;
+        long refreshTime = token.expiresAt() - refreshThreshold;
         
         return Math.max(0, refreshTime - now);
     }
@@ -260,9 +327,9 @@ public class TokenManager {
      */
     private void autoRefreshToken() {
         try {
-            if (!isTokenValid()) {
+            if (!isTokenValid(this.token)) {
                 logger.info("Auto refresh triggered");
-                refreshTokenIfNeeded();
+                refresh(false);
             }
         } catch (Exception e) {
             logger.error("Auto refresh failed", e);
@@ -270,38 +337,25 @@ public class TokenManager {
     }
     
     /**
-     * 갱신 완료 대기
+     * 현재 토큰 정보 출력
      */
-    private void waitForRefresh() {
-        int attempts = 0;
-        while (isRefreshing.get() && attempts < 50) {
-            try {
-                Thread.sleep(100);
-                attempts++;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Interrupted while waiting for token refresh", e);
-            }
-        }
+    public String getTokenInfo() {
+        Token current = this.token;
+        long expiresAt = current != null ? current.expiresAt() : 0;
+        long remaining = expiresAt - System.currentTimeMillis();
+        long remainingMinutes = TimeUnit.MILLISECONDS.toMinutes(remaining);
+        
+        return String.format("Token Info - Valid: %s, Remaining: %d minutes, Expires at: %s",
+                isTokenValid(current),
+                remainingMinutes,
+                new java.util.Date(expiresAt));
     }
     
     /**
-     * 현재 토큰 정보 출력
+     * token 서버 URL (warmup 커넥션 대상)
      */
-    public String getTokenInfo() {
-        lock.readLock().lock();
-        try {
-            long now = System.currentTimeMillis();
-            long remaining = tokenExpiresAt - now;
-            long remainingMinutes = TimeUnit.MILLISECONDS.toMinutes(remaining);
-            
-            return String.format("Token Info - Valid: %s, Remaining: %d minutes, Expires at: %s",
-                    isTokenValid(),
-                    remainingMinutes,
-                    new java.util.Date(tokenExpiresAt));
-        } finally {
-            lock.readLock().unlock();
-        }
+    public String tokenServer() {
+        return oauthMap.getString("tokenServer");
     }
     
     /**
@@ -309,15 +363,26 @@ public class TokenManager {
      */
     public void forceRefresh() {
         logger.info("Force refresh requested");
-        lock.writeLock().lock();
         try {
-            requestNewToken();
+            refresh(true).get();
             logger.info("Force refresh completed");
-        } catch (Exception e) {
-            logger.error("Force refresh failed", e);
-            throw new RuntimeException("강제 갱신 실패", e);
-        } finally {
-            lock.writeLock().unlock();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("강제 갱신 중단", e);
+        } catch (ExecutionException e) {
+            logger.error("Force refresh failed", e.getCause());
+            throw new RuntimeException("강제 갱신 실패", e.getCause());
+        }
+    }
+    
+    /**
+     * 자동 갱신 중단 (설정 reload 로 교체될 때)
+     */
+    public void close() {
+        ScheduledFuture<?> future = this.autoRefreshFuture;
+        if (future != null) {
+            future.cancel(false);
         }
+        logger.info("TokenManager closed for service account: {}", oauthMap.getString("serviceAccount"));
     }
 }
@@ -0,0 +1,92 @@
+package kr.tx24.test.naverworks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import kr.tx24.naverworks.callback.CallbackEvent;
+import kr.tx24.naverworks.callback.SignatureVerifier;
+
+/**
+ * Callback 확인
+ * - CallbackEvent.parse : 필요한 필드만 읽고 모르는 필드/중첩 객체는 건너뜀
+ * - SignatureVerifier   : X-WORKS-Signature (HMAC-SHA256, Base64)
+ */
+public class CallbackTest {
+
+	private static final JsonFactory factory = new JsonFactory();
+
+	public static void main(String[] args) throws Exception {
+
+		// message (text)
+		String body = "{\"type\":\"message\",\"unknown\":{\"a\":[1,{\"b\":2}]},"
+				+ "\"source\":{\"userId\":\"u1\",\"channelId\":\"ch1\",\"domainId\":10,\"extra\":{\"x\":1}},"
+				+ "\"issuedTime\":\"2026-10-19T10:00:00.000Z\","
+				+ "\"content\":{\"type\":\"text\",\"text\":\"안녕하세요\",\"i18n\":[\"ko\"]}}";
+		CallbackEvent event = parse(body);
+		check("message".equals(event.type()), "type");
+		check("u1".equals(event.userId()) && "ch1".equals(event.channelId()) && "10".equals(event.domainId()), "source " + event);
+		check("2026-10-19T10:00:00.000Z".equals(event.issuedTime()), "issuedTime");
+		check("text".equals(event.contentType()) && "안녕하세요".equals(event.text()), "content " + event);
+		check(event.postback() == null, "no postback");
+
+		// postback, 필드 순서 무관
+		event = parse("{\"content\":{\"postback\":\"pb1\",\"type\":\"postback\"},\"type\":\"postback\"}");
+		check("postback".equals(event.type()) && "pb1".equals(event.postback()) && event.userId() == null, "postback " + event);
+
+		// 잘못된 body
+		check(fails("[]"), "array body");
+		check(fails("{\"source\":{\"userId\":\"u1\"}}"), "missing type");
+		check(fails("{\"type\":\"message\""), "truncated body");
+
+		// 서명
+		String secret = "bot-secret";
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		String signature = sign(secret, bytes);
+		SignatureVerifier verifier = new SignatureVerifier(secret);
+		check(verifier.verify(ByteBuffer.wrap(bytes), signature), "valid signature");
+		// Mac 재사용 후에도 같은 결과
+		check(verifier.verify(ByteBuffer.wrap(bytes), signature), "valid signature again");
+		check(!verifier.verify(ByteBuffer.wrap(bytes), sign("other-secret", bytes)), "other secret");
+		bytes[bytes.length - 2] ^= 1;
+		check(!verifier.verify(ByteBuffer.wrap(bytes), signature), "modified body");
+		check(!verifier.verify(ByteBuffer.wrap(bytes), null), "no signature");
+		check(!verifier.verify(ByteBuffer.wrap(bytes), "not base64 !!"), "invalid base64");
+
+		System.out.println("CallbackTest OK");
+		System.exit(0);
+	}
+
+	private static CallbackEvent parse(String body) throws IOException {
+		return CallbackEvent.parse(factory, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static boolean fails(String body) {
+		try {
+			parse(body);
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	private static String sign(String secret, byte[] body) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return Base64.getEncoder().encodeToString(mac.doFinal(body));
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			new AssertionError(message).printStackTrace();
+			System.exit(1);
+		}
+	}
+}
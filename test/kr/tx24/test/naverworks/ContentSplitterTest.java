@@ -0,0 +1,103 @@
+package kr.tx24.test.naverworks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.service.ContentSplitter;
+
+/**
+ * ContentSplitter 확인 (textMaxLength 16, listMaxElements 2)
+ * - 줄바꿈 기준 분할
+ * - 제한 경계에 걸친 emoji (surrogate pair, ZWJ, variation selector, skin tone) 를 자르지 않음
+ * - list_template elements 분할
+ */
+public class ContentSplitterTest {
+
+	private static final int MAX = 16;
+	private static final ContentSplitter splitter = new ContentSplitter(MAX, 2);
+
+	public static void main(String[] args) {
+
+		// 나눌 필요 없음 -> 원본 그대로
+		BotMessage shortMessage = new BotMessage().botId("b").channelId("c").text("x".repeat(MAX));
+		List<BotMessage> parts = splitter.split(shortMessage);
+		check(parts.size() == 1 && parts.get(0) == shortMessage, "short message");
+
+		// 줄바꿈 기준 (줄바꿈 문자는 버림)
+		check(texts("a".repeat(10) + "\n" + "b".repeat(10)).equals(List.of("a".repeat(10), "b".repeat(10))), "newline");
+
+		// 줄바꿈이 없으면 제한 길이로
+		check(texts("x".repeat(40)).equals(List.of("x".repeat(16), "x".repeat(16), "x".repeat(8))), "plain");
+
+		// 제한 경계에 걸친 emoji
+		String[] emojis = {
+				"\uD83D\uDE00",									// surrogate pair
+				"\uD83D\uDC68\u200D\uD83D\uDC69\u200D\uD83D\uDC67",	// ZWJ sequence
+				"\u26A0\uFE0F",									// variation selector
+				"\uD83D\uDC4D\uD83C\uDFFD",						// skin tone modifier
+				"e\u0301",										// combining mark
+		};
+		for (String emoji : emojis) {
+			for (int prefix = MAX - emoji.length(); prefix <= MAX; prefix++) {
+				String text = "x".repeat(prefix) + emoji + "y".repeat(20);
+				List<String> texts = texts(text);
+				check(String.join("", texts).equals(text), "joined " + escape(emoji) + " prefix=" + prefix);
+				for (String part : texts) {
+					check(part.length() <= MAX, "length " + part.length());
+					check(safeEdges(part), "cut inside " + escape(emoji) + " prefix=" + prefix + ": " + escape(part));
+				}
+				check(texts.stream().filter(p -> p.contains(emoji)).count() == 1, "emoji kept whole " + escape(emoji) + " prefix=" + prefix);
+			}
+		}
+
+		// list_template : elements 를 나누고 coverData 는 유지
+		List<Map<String, Object>> elements = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			elements.add(Map.of("title", "item" + i));
+		}
+		parts = splitter.split(new BotMessage().botId("b").channelId("c").listTemplate("cover", elements));
+		check(parts.size() == 3, "list parts " + parts.size());
+		check(((List<?>) parts.get(0).getContent().get("elements")).size() == 2
+				&& ((List<?>) parts.get(2).getContent().get("elements")).size() == 1, "list elements");
+		check(parts.get(2).getContent().get("coverData") != null && "c".equals(parts.get(2).channelId()), "list copy");
+
+		System.out.println("ContentSplitterTest OK");
+		System.exit(0);
+	}
+
+	private static List<String> texts(String text) {
+		List<String> texts = new ArrayList<>();
+		for (BotMessage part : splitter.split(new BotMessage().botId("b").channelId("c").text(text))) {
+			texts.add(part.getContent().getString("text"));
+		}
+		return texts;
+	}
+
+	/**
+	 * 앞/뒤가 잘린 문자 없이 시작/끝나는지
+	 */
+	private static boolean safeEdges(String part) {
+		char first = part.charAt(0);
+		char last = part.charAt(part.length() - 1);
+		int cp = part.codePointAt(0);
+		return !Character.isLowSurrogate(first) && !Character.isHighSurrogate(last)
+				&& first != '\u200D' && last != '\u200D'
+				&& cp != 0xFE0F && !(cp >= 0x1F3FB && cp <= 0x1F3FF)
+				&& Character.getType(cp) != Character.NON_SPACING_MARK;
+	}
+
+	private static String escape(String text) {
+		StringBuilder sb = new StringBuilder();
+		text.codePoints().forEach(cp -> sb.append(cp < 0x80 ? String.valueOf((char) cp) : String.format("\\u{%X}", cp)));
+		return sb.toString();
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			new AssertionError(message).printStackTrace();
+			System.exit(1);
+		}
+	}
+}
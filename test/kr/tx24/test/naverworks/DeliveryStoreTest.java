@@ -0,0 +1,81 @@
+package kr.tx24.test.naverworks;
+
+import java.util.List;
+
+import kr.tx24.naverworks.bot.status.DeliveryRecord;
+import kr.tx24.naverworks.bot.status.DeliveryState;
+import kr.tx24.naverworks.bot.status.DeliveryStore;
+
+/**
+ * DeliveryStore 확인
+ * - 등록 / 전송 시작 / 완료 시각
+ * - ring 이 한 바퀴 돈 뒤 덮어쓴 id 는 조회되지 않음
+ * - channel 조회 (최신순, limit)
+ */
+public class DeliveryStoreTest {
+
+	public static void main(String[] args) throws Exception {
+		DeliveryStore store = DeliveryStore.get();
+		int capacity = ((Number) store.getStatus().get("capacity")).intValue();
+
+		// 등록 -> 시작 -> 완료
+		long id = store.enqueue("c1", DeliveryState.QUEUED);
+		DeliveryRecord record = store.find(id);
+		check(record.state() == DeliveryState.QUEUED, "state QUEUED");
+		check(record.startedAt() == 0 && record.completedAt() == 0, "not started");
+		check(record.queueWait() == -1 && record.latency() == -1, "no wait / latency");
+
+		Thread.sleep(20);
+		long enqueuedAt = store.sending(id);
+		record = store.find(id);
+		check(enqueuedAt == record.enqueuedAt(), "sending returns enqueuedAt");
+		check(record.state() == DeliveryState.SENDING && record.attempts() == 1, "state SENDING");
+		check(record.queueWait() >= 20, "queueWait " + record.queueWait());
+
+		// 재시도는 시작 시각을 바꾸지 않음
+		long startedAt = record.startedAt();
+		Thread.sleep(10);
+		store.sending(id);
+		record = store.find(id);
+		check(record.attempts() == 2 && record.startedAt() == startedAt, "startedAt kept on retry");
+
+		store.complete(id, DeliveryState.SENT, 201);
+		record = store.find(id);
+		check(record.state() == DeliveryState.SENT && record.httpCode() == 201, "state SENT");
+		check(record.completedAt() >= record.startedAt() && record.latency() >= record.queueWait(), "completedAt");
+
+		// channel 조회 (최신순)
+		long a = store.enqueue("c2", DeliveryState.QUEUED);
+		store.enqueue("c3", DeliveryState.QUEUED);
+		long b = store.enqueue("c2", DeliveryState.QUEUED);
+		List<DeliveryRecord> records = store.findByChannel("c2", 10);
+		check(records.size() == 2 && records.get(0).id() == b && records.get(1).id() == a, "findByChannel order");
+		check(store.findByChannel("c2", 1).size() == 1, "findByChannel limit");
+		check(store.findByChannel("none", 10).isEmpty(), "findByChannel empty");
+
+		// ring 한 바퀴 -> 덮어쓴 id 는 null, 같은 슬롯의 새 id 는 조회
+		long last = 0;
+		for (int i = 0; i < capacity; i++) {
+			last = store.enqueue("wrap", DeliveryState.QUEUED);
+		}
+		check(store.find(id) == null, "overwritten id");
+		check(store.find(a) == null && store.find(b) == null, "overwritten channel ids");
+		check(store.find(last) != null, "latest id");
+		check(store.findByChannel("c2", 10).isEmpty(), "overwritten channel");
+		check(store.findByChannel("wrap", 100).size() == 100, "wrap channel");
+
+		// 없는 id
+		check(store.find(last + 1) == null, "future id");
+		check(store.find(0) == null, "zero id");
+
+		System.out.println("DeliveryStoreTest OK, capacity=" + capacity);
+		System.exit(0);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			new AssertionError(message).printStackTrace();
+			System.exit(1);
+		}
+	}
+}
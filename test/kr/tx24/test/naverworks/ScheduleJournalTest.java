@@ -0,0 +1,92 @@
+package kr.tx24.test.naverworks;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import kr.tx24.naverworks.bot.BotMessage;
+import kr.tx24.naverworks.bot.schedule.ScheduleJournal;
+import kr.tx24.naverworks.bot.schedule.ScheduledMessage;
+
+/**
+ * ScheduleJournal 확인
+ * - ADD / PART / DEL 복원
+ * - 잘린 마지막 줄 무시
+ * - 기동 시 / 실행 중 압축
+ */
+public class ScheduleJournalTest {
+
+	public static void main(String[] args) throws Exception {
+		Path dir = Files.createTempDirectory("journal");
+		Path path = dir.resolve("schedule.jsonl");
+
+		// 기록
+		ScheduleJournal journal = new ScheduleJournal(path, 10000);
+		check(journal.open().isEmpty(), "empty journal");
+		journal.add(message("a", 1000));
+		journal.add(message("b", 2000));
+		journal.add(message("c", 3000));
+		journal.progress("a", 2);
+		journal.remove("b");
+		journal.remove("b");
+		journal.progress("b", 1);
+		check(journal.get("a").getSentParts() == 2, "sentParts in memory");
+		check(journal.get("b") == null, "removed");
+		journal.close();
+		check(lines(path) == 5, "append only, no line for removed id, lines=" + lines(path));
+
+		// 비정상 종료로 잘린 줄
+		Files.writeString(path, "{\"op\":\"DEL\",\"id\":", StandardCharsets.UTF_8, java.nio.file.StandardOpenOption.APPEND);
+
+		// 복원 + 압축
+		journal = new ScheduleJournal(path, 10000);
+		Map<String, ScheduledMessage> restored = byId(journal.open());
+		check(restored.keySet().equals(java.util.Set.of("a", "c")), "restored " + restored.keySet());
+		check(restored.get("a").getSentParts() == 2 && restored.get("c").getSentParts() == 0, "sentParts restored");
+		check(restored.get("a").getSendAt() == 1000 && restored.get("a").getTenant().equals("default"), "fields restored");
+		check(restored.get("c").toMessage().target().equals("ch-c"), "message restored");
+		check(lines(path) == 2, "compacted on open, lines=" + lines(path));
+		journal.close();
+
+		// 실행 중 압축 (compactThreshold 이상 + 남은 항목 수 이상)
+		journal = new ScheduleJournal(path, 10);
+		journal.open();
+		for (int i = 0; i < 20; i++) {
+			journal.add(message("t" + i, i));
+			journal.remove("t" + i);
+		}
+		check(lines(path) < 20, "compacted while running, lines=" + lines(path));
+		journal.close();
+
+		journal = new ScheduleJournal(path, 10);
+		check(byId(journal.open()).keySet().equals(java.util.Set.of("a", "c")), "after compaction");
+		journal.close();
+
+		System.out.println("ScheduleJournalTest OK");
+		System.exit(0);
+	}
+
+	private static ScheduledMessage message(String id, long sendAt) {
+		return new ScheduledMessage(id, "default", new BotMessage().botId("b").channelId("ch-" + id).text("text " + id), sendAt, 0);
+	}
+
+	private static Map<String, ScheduledMessage> byId(Collection<ScheduledMessage> messages) {
+		return messages.stream().collect(Collectors.toMap(ScheduledMessage::getId, m -> m));
+	}
+
+	private static long lines(Path path) throws Exception {
+		try (var lines = Files.lines(path)) {
+			return lines.filter(l -> !l.isBlank()).count();
+		}
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			new AssertionError(message).printStackTrace();
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package kr.tx24.test.naverworks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import kr.tx24.lib.map.LinkedMap;
+import kr.tx24.naverworks.bot.trace.SendTrace;
+import kr.tx24.naverworks.bot.trace.SlowSendRecorder;
+
+/**
+ * SlowSendRecorder 확인
+ * - 여러 스레드에서 넣어도 분마다 가장 느린 slowTopN 건만, 느린 순서로 남음
+ * - 전체 시간은 lane 대기(queueMs) 포함
+ */
+public class SlowSendRecorderTest {
+
+	private static final int COUNT = 500;
+
+	public static void main(String[] args) throws Exception {
+		SlowSendRecorder recorder = SlowSendRecorder.get();
+		int topN = (Integer) recorder.getStatus().get("slowTopN");
+
+		// 분이 바뀌는 시점을 피함
+		long inMinute = System.currentTimeMillis() % 60_000L;
+		if (inMinute > 50_000L) {
+			Thread.sleep(60_000L - inMinute + 100);
+		}
+
+		// 대기 시간 0 ~ COUNT-1 초를 섞어서 4 개 스레드로
+		List<Integer> waits = new ArrayList<>();
+		for (int i = 0; i < COUNT; i++) {
+			waits.add(i);
+		}
+		Collections.shuffle(waits);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int wait : waits) {
+			executor.execute(() -> {
+				SendTrace trace = new SendTrace(wait, "default", "ch" + wait, System.currentTimeMillis() - wait * 1000L);
+				trace.begin(SendTrace.Stage.TOKEN);
+				trace.finish(201);
+			});
+		}
+		executor.shutdown();
+		check(executor.awaitTermination(10, TimeUnit.SECONDS), "offer timeout");
+
+		List<LinkedMap<String,Object>> minutes = recorder.dump();
+		check(minutes.size() == 1, "minutes " + minutes.size());
+
+		@SuppressWarnings("unchecked")
+		List<Map<String,Object>> requests = (List<Map<String,Object>>) minutes.get(0).get("requests");
+		check(requests.size() == topN, "requests " + requests.size());
+		for (int i = 0; i < topN; i++) {
+			long expected = COUNT - 1 - i;
+			check(Long.parseLong((String) requests.get(i).get("correlationId")) == expected,
+					"rank " + i + " : " + requests.get(i));
+			check(((Number) requests.get(i).get("queueMs")).longValue() >= expected * 1000L, "queueMs " + requests.get(i));
+			check(((Number) requests.get(i).get("totalMs")).doubleValue() >= ((Number) requests.get(i).get("queueMs")).doubleValue(),
+					"totalMs " + requests.get(i));
+		}
+
+		System.out.println("SlowSendRecorderTest OK, topN=" + topN);
+		System.exit(0);
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			new AssertionError(message).printStackTrace();
+			System.exit(1);
+		}
+	}
+}